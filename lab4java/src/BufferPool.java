@@ -0,0 +1,31 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+// Fixed-size direct buffers carved out of larger slabs, so thousands of connections don't each pay for
+// a separate direct allocation. Not thread-safe: it belongs to the selector thread that uses it.
+public class BufferPool {
+    public static final int BUFFER_SIZE = 8192;
+    private static final int BUFFERS_PER_SLAB = 64;
+
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private int allocated;
+
+    public ByteBuffer acquire() {
+        if (free.isEmpty()) {
+            ByteBuffer slab = ByteBuffer.allocateDirect(BUFFER_SIZE * BUFFERS_PER_SLAB);
+            for (int i = 0; i < BUFFERS_PER_SLAB; i++) {
+                free.push(slab.slice(i * BUFFER_SIZE, BUFFER_SIZE));
+            }
+            allocated += BUFFERS_PER_SLAB;
+        }
+        return free.pop().clear();
+    }
+
+    public void release(ByteBuffer buffer) {
+        free.push(buffer);
+    }
+
+    public int getAllocated() {
+        return allocated;
+    }
+}
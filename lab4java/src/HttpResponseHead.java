@@ -0,0 +1,94 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Incremental parser for the status line and headers of an HTTP/1.x response. Bytes are fed in as they
+// arrive; the parser remembers how much of the "\r\n\r\n" terminator it has already matched, so every byte
+// is looked at once no matter how the head is split across reads.
+public class HttpResponseHead {
+    private static final int MAX_HEAD_SIZE = 64 * 1024;
+
+    private byte[] head = new byte[512];
+    private int headSize;
+    private int matched;
+    private boolean complete;
+
+    private int statusCode = -1;
+    private long contentLength = -1;
+    private boolean chunked;
+
+    // Consumes head bytes from buffer and returns true once the head is complete, leaving the buffer
+    // positioned at the first body byte. Returns false when it needs more data.
+    public boolean feed(ByteBuffer buffer) throws IOException {
+        while (!complete && buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (headSize == head.length) {
+                if (headSize == MAX_HEAD_SIZE) throw new IOException("Response head larger than " + MAX_HEAD_SIZE + " bytes");
+                head = Arrays.copyOf(head, Math.min(MAX_HEAD_SIZE, headSize * 2));
+            }
+            head[headSize++] = b;
+
+            if (b == (matched % 2 == 0 ? '\r' : '\n')) {
+                matched++;
+            } else {
+                matched = b == '\r' ? 1 : 0;
+            }
+
+            if (matched == 4) {
+                complete = true;
+                parse();
+            }
+        }
+        return complete;
+    }
+
+    private void parse() throws IOException {
+        String text = new String(head, 0, headSize - 4, StandardCharsets.ISO_8859_1);
+        String[] lines = text.split("\r\n");
+
+        String[] status = lines[0].split(" ", 3);
+        if (status.length < 2 || !status[0].startsWith("HTTP/")) {
+            throw new IOException("Malformed status line: " + lines[0]);
+        }
+        try {
+            statusCode = Integer.parseInt(status[1]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed status line: " + lines[0]);
+        }
+
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0) continue;
+            String name = lines[i].substring(0, colon).trim();
+            String value = lines[i].substring(colon + 1).trim();
+
+            if (name.equalsIgnoreCase("Content-Length")) {
+                try {
+                    contentLength = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Bad Content-Length: " + value);
+                }
+            } else if (name.equalsIgnoreCase("Transfer-Encoding") && value.toLowerCase().contains("chunked")) {
+                chunked = true;
+            }
+        }
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    // -1 when the server sent no Content-Length; the body then runs until the connection closes.
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    public boolean isChunked() {
+        return chunked;
+    }
+}
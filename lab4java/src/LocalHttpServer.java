@@ -0,0 +1,166 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+// Minimal single-threaded HTTP server on the loopback interface, standing in for the real sites when
+// benchmarking the downloader. GET /<n> answers with n body bytes and a Content-Length; GET /<n>?close
+// leaves the length out and ends the body by closing the connection. Byte i of a body is (i % 251).
+public class LocalHttpServer implements AutoCloseable {
+    private static final int BACKLOG = 4096;
+    private static final int TEMPLATE_SIZE = 251 * 256;
+
+    private static final class Connection {
+        final ByteBuffer request = ByteBuffer.allocate(1024);
+        ByteBuffer head;
+        long bodyLeft;
+        long bodySent;
+    }
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Thread loop;
+    private final ByteBuffer template;
+    private volatile boolean running = true;
+
+    public LocalHttpServer() throws IOException {
+        template = ByteBuffer.allocateDirect(TEMPLATE_SIZE);
+        for (int i = 0; i < TEMPLATE_SIZE; i++) {
+            template.put((byte) (i % 251));
+        }
+        template.flip();
+
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), BACKLOG);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+
+        loop = new Thread(this::run, "Local-Http-Server");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isReadable()) {
+                            onRead(key);
+                        } else if (key.isWritable()) {
+                            onWrite(key);
+                        }
+                    } catch (IOException e) {
+                        closeClient(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Local server stopped: " + e.getMessage());
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel client;
+        while ((client = server.accept()) != null) {
+            client.configureBlocking(false);
+            client.register(selector, SelectionKey.OP_READ, new Connection());
+        }
+    }
+
+    private void onRead(SelectionKey key) throws IOException {
+        Connection c = (Connection) key.attachment();
+        SocketChannel client = (SocketChannel) key.channel();
+        if (client.read(c.request) < 0 || !c.request.hasRemaining()) {
+            closeClient(key);
+            return;
+        }
+
+        String request = new String(c.request.array(), 0, c.request.position(), StandardCharsets.US_ASCII);
+        if (!request.contains("\r\n\r\n")) return;
+
+        c.head = ByteBuffer.wrap(respond(request, c).getBytes(StandardCharsets.US_ASCII));
+        key.interestOps(SelectionKey.OP_WRITE);
+        onWrite(key);
+    }
+
+    private static String respond(String request, Connection c) {
+        String target = request.substring(0, request.indexOf("\r\n")).split(" ")[1];
+        boolean close = target.endsWith("?close");
+        if (close) target = target.substring(0, target.length() - "?close".length());
+
+        try {
+            c.bodyLeft = Long.parseLong(target.substring(1));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            c.bodyLeft = 0;
+            return "HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\nConnection: close\r\n\r\n";
+        }
+
+        return "HTTP/1.1 200 OK\r\nContent-Type: application/octet-stream\r\n"
+                + (close ? "" : "Content-Length: " + c.bodyLeft + "\r\n")
+                + "Connection: close\r\n\r\n";
+    }
+
+    private void onWrite(SelectionKey key) throws IOException {
+        Connection c = (Connection) key.attachment();
+        SocketChannel client = (SocketChannel) key.channel();
+
+        if (c.head.hasRemaining()) {
+            client.write(c.head);
+            if (c.head.hasRemaining()) return;
+        }
+
+        while (c.bodyLeft > 0) {
+            // The body is a window into the repeating template starting at the current offset.
+            ByteBuffer body = template.duplicate();
+            body.position((int) (c.bodySent % 251));
+            body.limit((int) Math.min(TEMPLATE_SIZE, body.position() + c.bodyLeft));
+            int n = client.write(body);
+            if (n == 0) return;
+            c.bodyLeft -= n;
+            c.bodySent += n;
+        }
+
+        closeClient(key);
+    }
+
+    private static void closeClient(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+}
@@ -0,0 +1,97 @@
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+public class Main {
+
+    // No arguments: benchmark against the local server. Otherwise either
+    //   <downloads> <bodyBytes> <maxConcurrent>   benchmark with those numbers
+    //   http://host[:port]/path ...               download the given URLs into the current directory
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].startsWith("http://")) {
+            downloadUrls(args);
+            return;
+        }
+
+        int downloads = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int bodyBytes = args.length > 1 ? Integer.parseInt(args[1]) : 64 * 1024;
+        int maxConcurrent = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        benchmark(downloads, bodyBytes, maxConcurrent);
+    }
+
+    private static void benchmark(int downloads, int bodyBytes, int maxConcurrent) throws IOException {
+        Path dir = Files.createTempDirectory("lab4java");
+        System.out.println("Downloads: " + downloads + " x " + bodyBytes + " bytes, at most " + maxConcurrent + " at once");
+        System.out.println("--------------------------------------------------");
+
+        try (LocalHttpServer server = new LocalHttpServer()) {
+            SelectorDownloader downloader = new SelectorDownloader(maxConcurrent);
+            List<CompletableFuture<Long>> results = new ArrayList<>(downloads);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < downloads; i++) {
+                results.add(downloader.download("127.0.0.1", server.getPort(), "/" + bodyBytes, dir.resolve("file-" + i + ".bin")));
+            }
+
+            long bytes = 0;
+            int failures = 0;
+            for (CompletableFuture<Long> result : results) {
+                try {
+                    bytes += result.join();
+                } catch (CompletionException e) {
+                    if (failures++ == 0) System.out.println("First failure: " + e.getCause());
+                }
+            }
+            long end = System.nanoTime();
+            downloader.close();
+
+            double ms = (end - start) / 1000000.0;
+            System.out.println("Selector Downloader: " + ms + " ms");
+            System.out.printf("Result: %d ok, %d failed, %.1f MB (%.1f MB/s, %.0f downloads/s)%n",
+                    downloads - failures, failures, bytes / 1e6, bytes / 1e6 / (ms / 1000), downloads / (ms / 1000));
+            System.out.println("Peak open connections: " + downloader.getPeakActive()
+                    + ", pooled buffers: " + downloader.getBuffersAllocated() + " x " + BufferPool.BUFFER_SIZE + " bytes");
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static void downloadUrls(String[] urls) throws IOException {
+        try (SelectorDownloader downloader = new SelectorDownloader(urls.length)) {
+            List<CompletableFuture<Long>> results = new ArrayList<>();
+            List<Path> targets = new ArrayList<>();
+
+            for (String url : urls) {
+                URI uri = URI.create(url);
+                String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+                if (uri.getRawQuery() != null) path += "?" + uri.getRawQuery();
+                String name = path.substring(path.lastIndexOf('/') + 1);
+                Path target = Path.of(uri.getHost() + "_" + (name.isEmpty() ? "index.html" : name.replace('?', '_')));
+
+                targets.add(target);
+                results.add(downloader.download(uri.getHost(), uri.getPort() < 0 ? 80 : uri.getPort(), path, target));
+            }
+
+            for (int i = 0; i < urls.length; i++) {
+                try {
+                    long bytes = results.get(i).join();
+                    System.out.println("[SUCCESS] " + urls[i] + ": Downloaded " + bytes + " bytes.");
+                    System.out.println("Saved file to: " + targets.get(i).toAbsolutePath());
+                } catch (CompletionException e) {
+                    System.out.println("[FAILURE] " + urls[i] + ": " + e.getCause());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Java counterpart of lab4's SrvBeginEnd: every download is a small state machine driven by one selector
+// thread instead of a chain of callbacks. connect -> send request -> read the head into a pooled buffer
+// -> move the body from the socket into the target file. At most maxConcurrent connections are open at
+// once; further downloads wait in a queue.
+public class SelectorDownloader implements AutoCloseable {
+
+    private static final class Download {
+        final InetSocketAddress address;
+        final String host;
+        final String path;
+        final Path target;
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+
+        SocketChannel channel;
+        FileChannel file;
+        ByteBuffer buffer;
+        HttpResponseHead head;
+        long bodyLength;
+        long written;
+
+        Download(InetSocketAddress address, String host, String path, Path target) {
+            this.address = address;
+            this.host = host;
+            this.path = path;
+            this.target = target;
+        }
+    }
+
+    private final int maxConcurrent;
+    private final Selector selector;
+    private final Thread loop;
+    private final BufferPool buffers = new BufferPool();
+    private final ConcurrentLinkedQueue<Download> incoming = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+    // Set once the selector thread stops; downloads submitted after that are failed with it right away.
+    private volatile Throwable stopped;
+
+    // Only touched by the selector thread.
+    private final ArrayDeque<Download> waiting = new ArrayDeque<>();
+    private int active;
+    private int peakActive;
+
+    public SelectorDownloader(int maxConcurrent) throws IOException {
+        this.maxConcurrent = maxConcurrent;
+        this.selector = Selector.open();
+        this.loop = new Thread(this::run, "Download-Selector");
+        this.loop.start();
+    }
+
+    // Resolves the host on the calling thread so the selector thread never blocks on DNS.
+    // The future completes with the number of body bytes written to target.
+    public CompletableFuture<Long> download(String host, int port, String path, Path target) {
+        Download d = new Download(new InetSocketAddress(host, port), host, path, target);
+        if (d.address.isUnresolved()) {
+            d.result.completeExceptionally(new IOException("Unknown host: " + host));
+            return d.result;
+        }
+        incoming.add(d);
+        if (stopped != null) {
+            failIncoming(stopped);
+        } else {
+            selector.wakeup();
+        }
+        return d.result;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                acceptIncoming();
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    handle(key);
+                }
+                startWaiting();
+            }
+        } catch (Throwable e) {
+            failAll(e);
+            return;
+        }
+        failAll(new IOException("Downloader closed"));
+    }
+
+    private void acceptIncoming() {
+        Download d;
+        while ((d = incoming.poll()) != null) {
+            waiting.add(d);
+        }
+        startWaiting();
+    }
+
+    // Fills the slots freed since the last call. Downloads that fail while starting free their slot again,
+    // so this loop, not finish(), is what moves on to the next one; finish() calling start() would recurse
+    // once per queued download when they all fail immediately.
+    private void startWaiting() {
+        Download d;
+        while (active < maxConcurrent && (d = waiting.poll()) != null) {
+            start(d);
+        }
+    }
+
+    private void start(Download d) {
+        active++;
+        peakActive = Math.max(peakActive, active);
+        try {
+            d.channel = SocketChannel.open();
+            d.channel.configureBlocking(false);
+            SelectionKey key = d.channel.register(selector, SelectionKey.OP_CONNECT, d);
+            if (d.channel.connect(d.address)) {
+                onConnect(d, key);
+            }
+        } catch (IOException | RuntimeException e) {
+            // d isn't in waiting any more and may not be registered yet, so failAll would never see it.
+            finish(d, e);
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        Download d = (Download) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                onConnect(d, key);
+            } else if (key.isWritable()) {
+                onWrite(d, key);
+            } else if (key.isReadable()) {
+                if (d.head.isComplete()) {
+                    onReadBody(d);
+                } else {
+                    onReadHead(d);
+                }
+            }
+        } catch (IOException e) {
+            finish(d, e);
+        }
+    }
+
+    private void onConnect(Download d, SelectionKey key) throws IOException {
+        if (!d.channel.finishConnect()) return;
+
+        byte[] request = ("GET " + d.path + " HTTP/1.1\r\nHost: " + d.host + "\r\nConnection: close\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        if (request.length > BufferPool.BUFFER_SIZE) throw new IOException("Request line too long");
+
+        d.buffer = buffers.acquire();
+        d.buffer.put(request).flip();
+        d.head = new HttpResponseHead();
+        key.interestOps(SelectionKey.OP_WRITE);
+        onWrite(d, key);
+    }
+
+    private void onWrite(Download d, SelectionKey key) throws IOException {
+        d.channel.write(d.buffer);
+        if (!d.buffer.hasRemaining()) {
+            d.buffer.clear();
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void onReadHead(Download d) throws IOException {
+        if (d.channel.read(d.buffer) < 0) {
+            throw new EOFException("Connection closed before full header received");
+        }
+        d.buffer.flip();
+
+        if (!d.head.feed(d.buffer)) {
+            d.buffer.clear();
+            return;
+        }
+
+        if (d.head.getStatusCode() != 200) throw new IOException("HTTP status " + d.head.getStatusCode());
+        if (d.head.isChunked()) throw new IOException("Chunked transfer encoding is not supported");
+
+        d.bodyLength = d.head.getContentLength();
+        d.file = FileChannel.open(d.target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        // Body bytes that arrived together with the head.
+        if (d.bodyLength >= 0 && d.buffer.remaining() > d.bodyLength) {
+            d.buffer.limit(d.buffer.position() + (int) d.bodyLength);
+        }
+        writeToFile(d, d.buffer);
+        buffers.release(d.buffer);
+        d.buffer = null;
+
+        if (d.bodyLength >= 0 && d.written >= d.bodyLength) {
+            finish(d, null);
+        }
+    }
+
+    // The body goes from the socket to the file with transferFrom, without passing through a buffer of ours.
+    // transferFrom also returns 0 at end of stream, so a zero result is followed by a plain read to tell
+    // "no data yet" from "connection closed".
+    private void onReadBody(Download d) throws IOException {
+        long want = d.bodyLength >= 0 ? d.bodyLength - d.written : Long.MAX_VALUE - d.written;
+        long moved = d.file.transferFrom(d.channel, d.written, want);
+        d.written += moved;
+
+        if (moved == 0) {
+            ByteBuffer probe = buffers.acquire();
+            try {
+                if (d.bodyLength >= 0) probe.limit((int) Math.min(probe.capacity(), want));
+                int n = d.channel.read(probe);
+                if (n < 0) {
+                    if (d.bodyLength >= 0) throw new EOFException("Connection closed before file was fully downloaded");
+                    finish(d, null);
+                    return;
+                }
+                probe.flip();
+                writeToFile(d, probe);
+            } finally {
+                buffers.release(probe);
+            }
+        }
+
+        if (d.bodyLength >= 0 && d.written >= d.bodyLength) {
+            finish(d, null);
+        }
+    }
+
+    private static void writeToFile(Download d, ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            d.written += d.file.write(src, d.written);
+        }
+    }
+
+    private void finish(Download d, Throwable error) {
+        active--;
+        closeQuietly(d);
+        if (d.buffer != null) {
+            buffers.release(d.buffer);
+            d.buffer = null;
+        }
+
+        if (error == null) {
+            d.result.complete(d.written);
+        } else {
+            try {
+                Files.deleteIfExists(d.target);
+            } catch (IOException ignored) {
+            }
+            d.result.completeExceptionally(error);
+        }
+    }
+
+    private static void closeQuietly(Download d) {
+        try {
+            if (d.channel != null) d.channel.close();
+        } catch (IOException ignored) {
+        }
+        try {
+            if (d.file != null) d.file.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    // Runs on the selector thread once its loop has ended, normally or not. stopped is published before
+    // incoming is drained, so a download() racing with this either is drained here or fails itself.
+    private void failAll(Throwable error) {
+        stopped = error;
+        failIncoming(error);
+
+        Download d;
+        while ((d = waiting.poll()) != null) {
+            d.result.completeExceptionally(error);
+        }
+
+        for (SelectionKey key : selector.keys()) {
+            d = (Download) key.attachment();
+            if (!d.result.isDone()) {
+                finish(d, error);
+            }
+        }
+    }
+
+    private void failIncoming(Throwable error) {
+        Download d;
+        while ((d = incoming.poll()) != null) {
+            d.result.completeExceptionally(error);
+        }
+    }
+
+    // Highest number of connections that were open at the same time. Read after close().
+    public int getPeakActive() {
+        return peakActive;
+    }
+
+    public int getBuffersAllocated() {
+        return buffers.getAllocated();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        selector.close();
+    }
+}
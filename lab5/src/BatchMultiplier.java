@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+// Runs many products on one shared pool instead of spinning up threads per call. Results may come from
+// the cache and be shared between calls, so callers must not modify the returned coefficient arrays.
+public class BatchMultiplier implements AutoCloseable {
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final ProductCache cache;
+
+    public BatchMultiplier(int cacheCapacity) {
+        this(new ForkJoinPool(), true, cacheCapacity);
+    }
+
+    public BatchMultiplier(ForkJoinPool pool, int cacheCapacity) {
+        this(pool, false, cacheCapacity);
+    }
+
+    private BatchMultiplier(ForkJoinPool pool, boolean ownsPool, int cacheCapacity) {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.cache = new ProductCache(cacheCapacity);
+    }
+
+    public Polynomial multiply(Polynomial p1, Polynomial p2) {
+        Polynomial product = cache.get(p1, p2);
+        if (product == null) {
+            product = Multiplication.multiplyParallel(p1, p2, pool);
+            cache.put(p1, p2, product);
+        }
+        return product;
+    }
+
+    // Every pair becomes its own task, so small products run side by side while large ones still split internally.
+    public List<Polynomial> multiplyAll(List<Polynomial[]> pairs) {
+        List<ForkJoinTask<Polynomial>> tasks = new ArrayList<>(pairs.size());
+        for (Polynomial[] pair : pairs) {
+            tasks.add(pool.submit(() -> multiply(pair[0], pair[1])));
+        }
+
+        List<Polynomial> results = new ArrayList<>(pairs.size());
+        for (ForkJoinTask<Polynomial> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    // Multiplies the factors as a balanced product tree: both halves of every node carry about the same
+    // number of coefficients, so the big multiplications near the root have operands of similar size.
+    public Polynomial multiplyChain(List<Polynomial> factors) {
+        if (factors.isEmpty()) {
+            return new Polynomial(new int[]{1});
+        }
+        return pool.invoke(new ChainTask(factors, 0, factors.size()));
+    }
+
+    public Polynomial power(Polynomial p, int exponent) {
+        Polynomial result = new Polynomial(new int[]{1});
+        Polynomial square = p;
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result = result.getLength() == 1 && result.getCoeffs()[0] == 1 ? square : multiply(result, square);
+            }
+            exponent >>= 1;
+            if (exponent > 0) {
+                square = multiply(square, square);
+            }
+        }
+        return result;
+    }
+
+    public ProductCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private class ChainTask extends RecursiveTask<Polynomial> {
+        private final List<Polynomial> factors;
+        private final int from;
+        private final int to;
+
+        ChainTask(List<Polynomial> factors, int from, int to) {
+            this.factors = factors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Polynomial compute() {
+            if (to - from == 1) {
+                return factors.get(from);
+            }
+
+            int split = balancedSplit();
+            ChainTask right = new ChainTask(factors, split, to);
+            right.fork();
+            Polynomial left = new ChainTask(factors, from, split).compute();
+            return multiply(left, right.join());
+        }
+
+        private int balancedSplit() {
+            long total = 0;
+            for (int i = from; i < to; i++) {
+                total += factors.get(i).getLength();
+            }
+
+            long prefix = 0;
+            for (int i = from; i < to - 1; i++) {
+                prefix += factors.get(i).getLength();
+                if (2 * prefix >= total) {
+                    return i + 1;
+                }
+            }
+            return to - 1;
+        }
+    }
+}
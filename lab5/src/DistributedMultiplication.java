@@ -0,0 +1,293 @@
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coordinator for multiplying polynomials across worker JVMs on this machine, the Java counterpart of
+// the MPI program in lab7. Workers are started once and reused for every multiplication.
+public class DistributedMultiplication implements AutoCloseable {
+    // How long the workers get to start and connect back, and to exit after being told to shut down.
+    public static final long CONNECT_TIMEOUT_MS = 30000;
+    private static final long EXIT_TIMEOUT_MS = 5000;
+    private static final long POLL_MS = 100;
+
+    private final List<Process> processes = new ArrayList<>();
+    private final List<SocketChannel> workers = new ArrayList<>();
+
+    private long lastSplitNanos;
+    private long lastSendNanos;
+    private long lastComputeNanos;
+    private long lastGatherNanos;
+
+    public DistributedMultiplication(int workerCount) throws IOException {
+        String javaBin = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classPath = System.getProperty("java.class.path");
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(); Selector selector = Selector.open()) {
+            server.bind(new InetSocketAddress("localhost", 0));
+            int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+
+            for (int i = 0; i < workerCount; i++) {
+                ProcessBuilder builder = new ProcessBuilder(javaBin, "-cp", classPath, "DistributedWorker", String.valueOf(port));
+                builder.inheritIO();
+                processes.add(builder.start());
+            }
+
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            acceptWorkers(server, selector, workerCount);
+        } catch (IOException | RuntimeException e) {
+            // Don't leave half a cluster behind: whatever was started or accepted so far goes away.
+            for (SocketChannel worker : workers) {
+                closeQuietly(worker);
+            }
+            for (Process process : processes) {
+                process.destroyForcibly();
+            }
+            throw e;
+        }
+    }
+
+    // Accepts one connection per worker, giving up when the deadline passes or a worker JVM exits
+    // before connecting (bad class path, out of memory, ...).
+    private void acceptWorkers(ServerSocketChannel server, Selector selector, int workerCount) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MS);
+
+        while (workers.size() < workerCount) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                throw new IOException("Only " + workers.size() + " of " + workerCount + " workers connected within "
+                        + CONNECT_TIMEOUT_MS + " ms");
+            }
+
+            selector.select(Math.max(1, Math.min(POLL_MS, TimeUnit.NANOSECONDS.toMillis(left))));
+            selector.selectedKeys().clear();
+
+            SocketChannel channel;
+            while (workers.size() < workerCount && (channel = server.accept()) != null) {
+                channel.configureBlocking(true);
+                channel.socket().setTcpNoDelay(true);
+                workers.add(channel);
+            }
+
+            // A worker that has already connected may exit later; one that exits before that never will connect.
+            int exited = 0;
+            for (Process process : processes) {
+                if (!process.isAlive()) exited++;
+            }
+            if (workers.size() + exited < workerCount) continue;
+            if (workers.size() < workerCount) {
+                throw new IOException((workerCount - workers.size()) + " worker JVM(s) exited before connecting");
+            }
+        }
+    }
+
+    // Every worker gets both operands and a range of output coefficients, like the MPI_Bcast + MPI_Gatherv
+    // version. The ranges are cut so each one has about the same number of multiply-adds, not the same length.
+    public Polynomial multiplyRegular(Polynomial p1, Polynomial p2) throws IOException {
+        long start = System.nanoTime();
+        int resultSize = p1.getLength() + p2.getLength() - 1;
+        int[] bounds = balancedRanges(p1.getLength(), p2.getLength(), workers.size());
+        long split = System.nanoTime();
+
+        for (int w = 0; w < workers.size(); w++) {
+            PolynomialChannel.send(workers.get(w), new PolynomialChannel.Frame(PolynomialChannel.OP_REGULAR, bounds[w], bounds[w + 1], p1, p2));
+        }
+        long sent = System.nanoTime();
+
+        Polynomial[] parts = new Polynomial[workers.size()];
+        for (int w = 0; w < workers.size(); w++) {
+            parts[w] = PolynomialChannel.receive(workers.get(w)).polys[0];
+        }
+        long received = System.nanoTime();
+
+        int[] result = new int[resultSize];
+        for (int w = 0; w < workers.size(); w++) {
+            System.arraycopy(parts[w].getCoeffs(), 0, result, bounds[w], parts[w].getLength());
+        }
+        long gathered = System.nanoTime();
+
+        recordTimings(start, split, sent, received, gathered);
+        return new Polynomial(result);
+    }
+
+    // The top Karatsuba levels are expanded on the coordinator until there are at least as many
+    // sub-products as workers; the leaves are shipped out in one frame per worker and recombined here.
+    public Polynomial multiplyKaratsuba(Polynomial p1, Polynomial p2) throws IOException {
+        long start = System.nanoTime();
+
+        List<Polynomial[]> leaves = new ArrayList<>();
+        KaratsubaNode root = expand(p1, p2, levelsFor(workers.size()), leaves);
+
+        List<List<Polynomial>> batches = new ArrayList<>();
+        for (int w = 0; w < workers.size(); w++) {
+            batches.add(new ArrayList<>());
+        }
+        for (int i = 0; i < leaves.size(); i++) {
+            List<Polynomial> batch = batches.get(i % workers.size());
+            batch.add(leaves.get(i)[0]);
+            batch.add(leaves.get(i)[1]);
+        }
+        long split = System.nanoTime();
+
+        for (int w = 0; w < workers.size(); w++) {
+            Polynomial[] polys = batches.get(w).toArray(new Polynomial[0]);
+            PolynomialChannel.send(workers.get(w), new PolynomialChannel.Frame(PolynomialChannel.OP_KARATSUBA, 0, 0, polys));
+        }
+        long sent = System.nanoTime();
+
+        Polynomial[][] replies = new Polynomial[workers.size()][];
+        for (int w = 0; w < workers.size(); w++) {
+            replies[w] = PolynomialChannel.receive(workers.get(w)).polys;
+        }
+        long received = System.nanoTime();
+
+        Polynomial[] products = new Polynomial[leaves.size()];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = replies[i % workers.size()][i / workers.size()];
+        }
+        Polynomial result = root.combine(products);
+        long gathered = System.nanoTime();
+
+        recordTimings(start, split, sent, received, gathered);
+        return result;
+    }
+
+    public String describeLastRun() {
+        return String.format("split %.3f ms, send %.3f ms, compute %.3f ms, gather %.3f ms",
+                lastSplitNanos / 1000000.0, lastSendNanos / 1000000.0, lastComputeNanos / 1000000.0, lastGatherNanos / 1000000.0);
+    }
+
+    // Best effort per worker: a worker that can't be told to shut down, or doesn't exit in time, is killed,
+    // and the rest are still shut down. The first failure is rethrown at the end.
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+
+        for (SocketChannel worker : workers) {
+            try {
+                PolynomialChannel.send(worker, new PolynomialChannel.Frame(PolynomialChannel.OP_SHUTDOWN, 0, 0));
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            } finally {
+                closeQuietly(worker);
+            }
+        }
+
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(EXIT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+
+        if (failure != null) throw failure;
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void recordTimings(long start, long split, long sent, long received, long gathered) {
+        lastSplitNanos = split - start;
+        lastSendNanos = sent - split;
+        lastComputeNanos = received - sent;
+        lastGatherNanos = gathered - received;
+    }
+
+    static int[] balancedRanges(int size1, int size2, int parts) {
+        int resultSize = size1 + size2 - 1;
+        int shorter = Math.min(size1, size2);
+
+        long totalWork = (long) size1 * size2;
+        int[] bounds = new int[parts + 1];
+        bounds[parts] = resultSize;
+
+        long work = 0;
+        int part = 1;
+        for (int k = 0; k < resultSize && part < parts; k++) {
+            // Number of (i, j) pairs with i + j == k.
+            work += Math.min(Math.min(k + 1, resultSize - k), shorter);
+            while (part < parts && work * parts >= totalWork * part) {
+                bounds[part++] = k + 1;
+            }
+        }
+        while (part < parts) {
+            bounds[part++] = resultSize;
+        }
+        return bounds;
+    }
+
+    private static int levelsFor(int workerCount) {
+        int levels = 0;
+        for (int products = 1; products < workerCount; products *= 3) {
+            levels++;
+        }
+        return levels;
+    }
+
+    private static KaratsubaNode expand(Polynomial p1, Polynomial p2, int levels, List<Polynomial[]> leaves) {
+        if (levels == 0 || p1.getLength() < Multiplication.KARATSUBA_THRESHOLD || p2.getLength() < Multiplication.KARATSUBA_THRESHOLD) {
+            leaves.add(new Polynomial[]{p1, p2});
+            return new KaratsubaNode(leaves.size() - 1);
+        }
+
+        int len = Math.max(p1.getLength(), p2.getLength()) / 2;
+
+        Polynomial low1 = Multiplication.lowPart(p1, len);
+        Polynomial high1 = Multiplication.highPart(p1, len);
+
+        Polynomial low2 = Multiplication.lowPart(p2, len);
+        Polynomial high2 = Multiplication.highPart(p2, len);
+
+        KaratsubaNode z0 = expand(low1, low2, levels - 1, leaves);
+        KaratsubaNode z1 = expand(Polynomial.add(low1, high1), Polynomial.add(low2, high2), levels - 1, leaves);
+        KaratsubaNode z2 = expand(high1, high2, levels - 1, leaves);
+        return new KaratsubaNode(len, z0, z1, z2);
+    }
+
+    private static class KaratsubaNode {
+        private final int leafIndex;
+        private final int len;
+        private final KaratsubaNode z0;
+        private final KaratsubaNode z1;
+        private final KaratsubaNode z2;
+
+        KaratsubaNode(int leafIndex) {
+            this(leafIndex, 0, null, null, null);
+        }
+
+        KaratsubaNode(int len, KaratsubaNode z0, KaratsubaNode z1, KaratsubaNode z2) {
+            this(-1, len, z0, z1, z2);
+        }
+
+        private KaratsubaNode(int leafIndex, int len, KaratsubaNode z0, KaratsubaNode z1, KaratsubaNode z2) {
+            this.leafIndex = leafIndex;
+            this.len = len;
+            this.z0 = z0;
+            this.z1 = z1;
+            this.z2 = z2;
+        }
+
+        Polynomial combine(Polynomial[] products) {
+            if (leafIndex >= 0) {
+                return products[leafIndex];
+            }
+            return Multiplication.combineKaratsuba(z0.combine(products), z1.combine(products), z2.combine(products), len);
+        }
+    }
+}
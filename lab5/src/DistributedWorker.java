@@ -0,0 +1,39 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+
+// Started by DistributedMultiplication as a separate JVM; connects back to the coordinator and serves
+// frames until it is told to shut down.
+public class DistributedWorker {
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port))) {
+            while (true) {
+                PolynomialChannel.Frame request = PolynomialChannel.receive(channel);
+
+                if (request.op == PolynomialChannel.OP_SHUTDOWN) {
+                    return;
+                }
+
+                Polynomial[] results;
+                if (request.op == PolynomialChannel.OP_REGULAR) {
+                    results = new Polynomial[]{computeRange(request.polys[0], request.polys[1], request.from, request.to)};
+                } else {
+                    results = new Polynomial[request.polys.length / 2];
+                    for (int i = 0; i < results.length; i++) {
+                        results[i] = Multiplication.multiplySequentialKaratsuba(request.polys[2 * i], request.polys[2 * i + 1]);
+                    }
+                }
+
+                PolynomialChannel.send(channel, new PolynomialChannel.Frame(PolynomialChannel.OP_RESULT, request.from, request.to, results));
+            }
+        }
+    }
+
+    private static Polynomial computeRange(Polynomial p1, Polynomial p2, int from, int to) {
+        int[] local = new int[to - from];
+        Multiplication.convolveRange(p1.getCoeffs(), p2.getCoeffs(), local, from, from, to);
+        return new Polynomial(local);
+    }
+}
@@ -0,0 +1,54 @@
+import java.util.concurrent.RecursiveTask;
+
+public class KaratsubaTask extends RecursiveTask<Polynomial> {
+    private final Polynomial p1;
+    private final Polynomial p2;
+    private final int baseThreshold;
+    private final int forkCutoff;
+
+    public KaratsubaTask(Polynomial p1, Polynomial p2, int baseThreshold, int forkCutoff) {
+        this.p1 = p1;
+        this.p2 = p2;
+        this.baseThreshold = Thresholds.checkKaratsuba(baseThreshold);
+        this.forkCutoff = forkCutoff;
+    }
+
+    // Every Karatsuba level halves the operands and produces three sub-products.
+    public static int forkCutoff(int n, int parallelism, int baseThreshold) {
+        return Multiplication.forkCutoff(n, parallelism, Thresholds.checkKaratsuba(baseThreshold), 2, 3);
+    }
+
+    @Override
+    protected Polynomial compute() {
+        int n = Math.max(p1.getLength(), p2.getLength());
+        if (n < forkCutoff || getSurplusQueuedTaskCount() > Multiplication.SURPLUS_LIMIT) {
+            return Multiplication.karatsuba(p1, p2, baseThreshold);
+        }
+
+        // A short operand against a long one is a base case that is still worth splitting by output blocks.
+        if (p1.getLength() < baseThreshold || p2.getLength() < baseThreshold) {
+            return RegularBlockTask.forProduct(p1, p2).invoke();
+        }
+
+        int len = n / 2;
+
+        Polynomial low1 = Multiplication.lowPart(p1, len);
+        Polynomial high1 = Multiplication.highPart(p1, len);
+
+        Polynomial low2 = Multiplication.lowPart(p2, len);
+        Polynomial high2 = Multiplication.highPart(p2, len);
+
+        KaratsubaTask taskZ2 = new KaratsubaTask(high1, high2, baseThreshold, forkCutoff);
+        taskZ2.fork();
+
+        KaratsubaTask taskZ1 = new KaratsubaTask(Polynomial.add(low1, high1), Polynomial.add(low2, high2), baseThreshold, forkCutoff);
+        taskZ1.fork();
+
+        Polynomial z0 = new KaratsubaTask(low1, low2, baseThreshold, forkCutoff).compute();
+
+        Polynomial z1 = taskZ1.join();
+        Polynomial z2 = taskZ2.join();
+
+        return Multiplication.combineKaratsuba(z0, z1, z2, len);
+    }
+}
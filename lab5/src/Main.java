@@ -1,4 +1,7 @@
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class Main {
     public static void main(String[] args) throws Exception {
@@ -30,5 +33,73 @@ public class Main {
         end = System.nanoTime();
         System.out.println("Parallel Karatsuba: " + (end - start) / 1000000.0 + " ms");
 
+        ForkJoinPool pool = new ForkJoinPool();
+        start = System.nanoTime();
+        Polynomial res5 = Multiplication.multiplyParallelKaratsuba(p1, p2, pool);
+        end = System.nanoTime();
+        System.out.println("Pool Karatsuba:     " + (end - start) / 1000000.0 + " ms (parallelism " + pool.getParallelism() + ")");
+
+        start = System.nanoTime();
+        Polynomial res6 = ToomCook3.multiplySequential(p1, p2);
+        end = System.nanoTime();
+        System.out.println("Seq Toom-3:         " + (end - start) / 1000000.0 + " ms");
+
+        start = System.nanoTime();
+        Polynomial res7 = ToomCook3.multiplyParallel(p1, p2, pool);
+        end = System.nanoTime();
+        System.out.println("Parallel Toom-3:    " + (end - start) / 1000000.0 + " ms");
+
+        start = System.nanoTime();
+        Polynomial res8 = Multiplication.multiplyParallel(p1, p2, pool);
+        end = System.nanoTime();
+        System.out.println("Dispatcher:         " + (end - start) / 1000000.0 + " ms");
+
+        int[] sparseCoeffs = new int[100001];
+        sparseCoeffs[0] = 1;
+        sparseCoeffs[100000] = 1;
+        Polynomial sparse = new Polynomial(sparseCoeffs);
+
+        start = System.nanoTime();
+        Polynomial res11 = Multiplication.multiplyParallel(sparse, sparse, pool);
+        end = System.nanoTime();
+        System.out.println("Sparse (x^100000 + 1)^2: " + (end - start) / 1000000.0 + " ms");
+
+        List<Polynomial> chain = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            chain.add(Polynomial.generateRandom(500));
+        }
+
+        try (BatchMultiplier batch = new BatchMultiplier(pool, 256)) {
+            start = System.nanoTime();
+            Polynomial res12 = batch.multiplyChain(chain);
+            end = System.nanoTime();
+            System.out.println("Chain of " + chain.size() + " (product tree): " + (end - start) / 1000000.0 + " ms");
+
+            List<Polynomial[]> pairs = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                pairs.add(new Polynomial[]{chain.get(i % chain.size()), chain.get((i * 7) % chain.size())});
+            }
+            start = System.nanoTime();
+            List<Polynomial> res13 = batch.multiplyAll(pairs);
+            end = System.nanoTime();
+            System.out.println("Batch of " + pairs.size() + " pairs: " + (end - start) / 1000000.0 + " ms (cache hits "
+                    + batch.getCache().getHits() + ", misses " + batch.getCache().getMisses() + ")");
+        }
+        pool.shutdown();
+
+        int workerCount = 4;
+        System.out.println("\nStarting " + workerCount + " worker JVMs...");
+        try (DistributedMultiplication distributed = new DistributedMultiplication(workerCount)) {
+            start = System.nanoTime();
+            Polynomial res9 = distributed.multiplyRegular(p1, p2);
+            end = System.nanoTime();
+            System.out.println("Distributed Regular:   " + (end - start) / 1000000.0 + " ms (" + distributed.describeLastRun() + ")");
+
+            start = System.nanoTime();
+            Polynomial res10 = distributed.multiplyKaratsuba(p1, p2);
+            end = System.nanoTime();
+            System.out.println("Distributed Karatsuba: " + (end - start) / 1000000.0 + " ms (" + distributed.describeLastRun() + ")");
+        }
+
     }
 }
\ No newline at end of file
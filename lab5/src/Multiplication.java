@@ -3,41 +3,122 @@ import java.util.Arrays;
 
 public class Multiplication {
 
+    // Defaults collected in Thresholds.DEFAULT; pass a Thresholds instance to the dispatchers to use other values.
+    public static final int KARATSUBA_THRESHOLD = 64;
+
+    // Share of non-zero coefficients below which the sparse heap-merge multiplication beats the dense methods.
+    public static final double SPARSE_DENSITY = 0.02;
+
+    public static Polynomial multiply(Polynomial p1, Polynomial p2) {
+        return multiply(p1, p2, Thresholds.DEFAULT);
+    }
+
+    public static Polynomial multiply(Polynomial p1, Polynomial p2, Thresholds thresholds) {
+        if (isSparse(p1, p2, thresholds)) {
+            return SparsePolynomial.multiply(SparsePolynomial.fromDense(p1), SparsePolynomial.fromDense(p2))
+                    .toDense(p1.getLength() + p2.getLength() - 1);
+        }
+        return multiplyDense(p1, p2, thresholds);
+    }
+
+    public static Polynomial multiplyParallel(Polynomial p1, Polynomial p2, ForkJoinPool pool) {
+        return multiplyParallel(p1, p2, pool, Thresholds.DEFAULT);
+    }
+
+    public static Polynomial multiplyParallel(Polynomial p1, Polynomial p2, ForkJoinPool pool, Thresholds thresholds) {
+        if (isSparse(p1, p2, thresholds)) {
+            return SparsePolynomial.multiplyParallel(SparsePolynomial.fromDense(p1), SparsePolynomial.fromDense(p2), pool)
+                    .toDense(p1.getLength() + p2.getLength() - 1);
+        }
+        return multiplyDenseParallel(p1, p2, pool, thresholds);
+    }
+
+    // Picks the fastest method for the operand sizes; the default thresholds come from the crossovers measured on Main's inputs.
+    public static Polynomial multiplyDense(Polynomial p1, Polynomial p2) {
+        return multiplyDense(p1, p2, Thresholds.DEFAULT);
+    }
+
+    public static Polynomial multiplyDense(Polynomial p1, Polynomial p2, Thresholds thresholds) {
+        int shorter = Math.min(p1.getLength(), p2.getLength());
+        if (shorter < thresholds.getKaratsuba()) {
+            return multiplySequentialRegular(p1, p2);
+        }
+        if (shorter < thresholds.getToom3() || !ToomCook3.canSplit(p1, p2)) {
+            return multiplySequentialKaratsuba(p1, p2, thresholds.getKaratsuba());
+        }
+        return ToomCook3.multiplySequential(p1, p2, thresholds);
+    }
+
+    public static Polynomial multiplyDenseParallel(Polynomial p1, Polynomial p2, ForkJoinPool pool) {
+        return multiplyDenseParallel(p1, p2, pool, Thresholds.DEFAULT);
+    }
+
+    public static Polynomial multiplyDenseParallel(Polynomial p1, Polynomial p2, ForkJoinPool pool, Thresholds thresholds) {
+        int shorter = Math.min(p1.getLength(), p2.getLength());
+        if (shorter < thresholds.getKaratsuba()) {
+            return multiplyParallelRegular(p1, p2, pool);
+        }
+        if (shorter < thresholds.getToom3() || !ToomCook3.canSplit(p1, p2)) {
+            return multiplyParallelKaratsuba(p1, p2, pool, thresholds.getKaratsuba());
+        }
+        return ToomCook3.multiplyParallel(p1, p2, pool, thresholds);
+    }
+
+    // Short operands are always multiplied densely; the scan costs less than any of the dense methods.
+    private static boolean isSparse(Polynomial p1, Polynomial p2, Thresholds thresholds) {
+        if (Math.min(p1.getLength(), p2.getLength()) < thresholds.getKaratsuba()) {
+            return false;
+        }
+        return p1.countNonZero() < thresholds.getSparseDensity() * p1.getLength()
+                && p2.countNonZero() < thresholds.getSparseDensity() * p2.getLength();
+    }
+
     public static Polynomial multiplySequentialRegular(Polynomial p1, Polynomial p2) {
-        int size1 = p1.getLength();
-        int size2 = p2.getLength();
-        int[] result = new int[size1 + size2 - 1];
+        int[] result = new int[p1.getLength() + p2.getLength() - 1];
+        convolveRange(p1.getCoeffs(), p2.getCoeffs(), result, 0, result.length);
+        return new Polynomial(result);
+    }
+
+    // Adds the coefficients [from, to) of a * b into out. The loop bounds are clipped up front so the
+    // inner loop is a plain out[i + j] += ai * b[j] without branches, which the JIT turns into SIMD code.
+    static void convolveRange(int[] a, int[] b, int[] out, int from, int to) {
+        convolveRange(a, b, out, 0, from, to);
+    }
+
+    // Same as above, but out only holds the coefficients starting at outStart.
+    static void convolveRange(int[] a, int[] b, int[] out, int outStart, int from, int to) {
+        int firstI = Math.max(0, from - (b.length - 1));
+        int lastI = Math.min(a.length, to);
 
-        for (int i = 0; i < size1; i++) {
-            for (int j = 0; j < size2; j++) {
-                result[i + j] += p1.getCoeffs()[i] * p2.getCoeffs()[j];
+        for (int i = firstI; i < lastI; i++) {
+            int ai = a[i];
+            int jFrom = Math.max(0, from - i);
+            int jTo = Math.min(b.length, to - i);
+            int base = i - outStart;
+            for (int j = jFrom; j < jTo; j++) {
+                out[base + j] += ai * b[j];
             }
         }
-        return new Polynomial(result);
     }
 
+    // Each thread owns whole blocks of output coefficients, handed out round-robin so the cheap blocks
+    // at both ends of the product and the expensive ones in the middle are spread over all threads.
     public static Polynomial multiplyParallelRegular(Polynomial p1, Polynomial p2) throws InterruptedException {
-        int size1 = p1.getLength();
-        int size2 = p2.getLength();
-        int resultSize = size1 + size2 - 1;
+        int resultSize = p1.getLength() + p2.getLength() - 1;
         int[] result = new int[resultSize];
 
         int numThreads = Runtime.getRuntime().availableProcessors();
+        int numBlocks = (resultSize + RegularBlockTask.BLOCK_SIZE - 1) / RegularBlockTask.BLOCK_SIZE;
         Thread[] threads = new Thread[numThreads];
 
         for (int t = 0; t < numThreads; t++) {
             final int threadId = t;
 
             threads[t] = new Thread(() -> {
-                for (int k = threadId; k < resultSize; k += numThreads) {
-                    int sum = 0;
-                    for (int i = 0; i < size1; i++) {
-                        int j = k - i;
-                        if (j >= 0 && j < size2) {
-                            sum += p1.getCoeffs()[i] * p2.getCoeffs()[j];
-                        }
-                    }
-                    result[k] = sum;
+                for (int block = threadId; block < numBlocks; block += numThreads) {
+                    int from = block * RegularBlockTask.BLOCK_SIZE;
+                    int to = Math.min(resultSize, from + RegularBlockTask.BLOCK_SIZE);
+                    convolveRange(p1.getCoeffs(), p2.getCoeffs(), result, from, to);
                 }
             });
 
@@ -55,45 +136,51 @@ public class Multiplication {
         return new Polynomial(result);
     }
 
+    public static Polynomial multiplyParallelRegular(Polynomial p1, Polynomial p2, ForkJoinPool pool) {
+        return pool.invoke(RegularBlockTask.forProduct(p1, p2));
+    }
+
     public static Polynomial multiplySequentialKaratsuba(Polynomial p1, Polynomial p2) {
-        if (p1.getLength() < 64 || p2.getLength() < 64) {
-            return multiplySequentialRegular(p1, p2);
-        }
+        return multiplySequentialKaratsuba(p1, p2, KARATSUBA_THRESHOLD);
+    }
 
-        int n = Math.max(p1.getLength(), p2.getLength());
-        int len = n / 2;
+    public static Polynomial multiplySequentialKaratsuba(Polynomial p1, Polynomial p2, int baseThreshold) {
+        return karatsuba(p1, p2, Thresholds.checkKaratsuba(baseThreshold));
+    }
 
-        Polynomial low1 = new Polynomial(Arrays.copyOfRange(p1.getCoeffs(), 0, Math.min(len, p1.getLength())));
-        Polynomial high1 = new Polynomial(Arrays.copyOfRange(p1.getCoeffs(), Math.min(len, p1.getLength()), p1.getLength()));
+    // baseThreshold has already been checked by the caller.
+    static Polynomial karatsuba(Polynomial p1, Polynomial p2, int baseThreshold) {
+        if (p1.getLength() < baseThreshold || p2.getLength() < baseThreshold) {
+            return multiplySequentialRegular(p1, p2);
+        }
 
-        Polynomial low2 = new Polynomial(Arrays.copyOfRange(p2.getCoeffs(), 0, Math.min(len, p2.getLength())));
-        Polynomial high2 = new Polynomial(Arrays.copyOfRange(p2.getCoeffs(), Math.min(len, p2.getLength()), p2.getLength()));
+        int len = Math.max(p1.getLength(), p2.getLength()) / 2;
 
-        Polynomial z0 = multiplySequentialKaratsuba(low1, low2);
-        Polynomial z2 = multiplySequentialKaratsuba(high1, high2);
-        Polynomial z1 = multiplySequentialKaratsuba(Polynomial.add(low1, high1), Polynomial.add(low2, high2));
+        Polynomial low1 = lowPart(p1, len);
+        Polynomial high1 = highPart(p1, len);
 
-        Polynomial middle = Polynomial.subtract(Polynomial.subtract(z1, z0), z2);
+        Polynomial low2 = lowPart(p2, len);
+        Polynomial high2 = highPart(p2, len);
 
-        Polynomial r1 = z2.shift(2 * len);
-        Polynomial r2 = middle.shift(len);
+        Polynomial z0 = karatsuba(low1, low2, baseThreshold);
+        Polynomial z2 = karatsuba(high1, high2, baseThreshold);
+        Polynomial z1 = karatsuba(Polynomial.add(low1, high1), Polynomial.add(low2, high2), baseThreshold);
 
-        return Polynomial.add(Polynomial.add(r1, r2), z0);
+        return combineKaratsuba(z0, z1, z2, len);
     }
 
     public static Polynomial multiplyParallelKaratsuba(Polynomial p1, Polynomial p2, int depth) {
-        if (depth > 4 || p1.getLength() < 64 || p2.getLength() < 64) {
+        if (depth > 4 || p1.getLength() < KARATSUBA_THRESHOLD || p2.getLength() < KARATSUBA_THRESHOLD) {
             return multiplySequentialKaratsuba(p1, p2);
         }
 
-        int n = Math.max(p1.getLength(), p2.getLength());
-        int len = n / 2;
+        int len = Math.max(p1.getLength(), p2.getLength()) / 2;
 
-        Polynomial low1 = new Polynomial(Arrays.copyOfRange(p1.getCoeffs(), 0, Math.min(len, p1.getLength())));
-        Polynomial high1 = new Polynomial(Arrays.copyOfRange(p1.getCoeffs(), Math.min(len, p1.getLength()), p1.getLength()));
+        Polynomial low1 = lowPart(p1, len);
+        Polynomial high1 = highPart(p1, len);
 
-        Polynomial low2 = new Polynomial(Arrays.copyOfRange(p2.getCoeffs(), 0, Math.min(len, p2.getLength())));
-        Polynomial high2 = new Polynomial(Arrays.copyOfRange(p2.getCoeffs(), Math.min(len, p2.getLength()), p2.getLength()));
+        Polynomial low2 = lowPart(p2, len);
+        Polynomial high2 = highPart(p2, len);
 
         RecursiveTask<Polynomial> taskZ2 = new RecursiveTask<>() {
             @Override
@@ -116,10 +203,55 @@ public class Multiplication {
         Polynomial z1 = taskZ1.join();
         Polynomial z2 = taskZ2.join();
 
+        return combineKaratsuba(z0, z1, z2, len);
+    }
+
+    public static Polynomial multiplyParallelKaratsuba(Polynomial p1, Polynomial p2, ForkJoinPool pool) {
+        return multiplyParallelKaratsuba(p1, p2, pool, KARATSUBA_THRESHOLD);
+    }
+
+    // Runs the whole recursion inside the given pool. The fork cutoff is derived from the input size and
+    // the pool parallelism, so small inputs are not over-split and wide pools still get enough tasks.
+    public static Polynomial multiplyParallelKaratsuba(Polynomial p1, Polynomial p2, ForkJoinPool pool, int baseThreshold) {
+        Thresholds.checkKaratsuba(baseThreshold);
+        int n = Math.max(p1.getLength(), p2.getLength());
+        int forkCutoff = KaratsubaTask.forkCutoff(n, pool.getParallelism(), baseThreshold);
+        return pool.invoke(new KaratsubaTask(p1, p2, baseThreshold, forkCutoff));
+    }
+
+    // Aim for this many leaf tasks per worker so stealing can even out uneven branches such as Karatsuba's z1.
+    private static final int TASKS_PER_WORKER = 8;
+    // Once a worker already has this many unclaimed tasks queued, forking more only adds overhead.
+    static final int SURPLUS_LIMIT = 3;
+
+    // Operand size below which a recursive split stops forking, for a method that cuts its operands into
+    // splitFactor parts and recurses into subProducts sub-products per level.
+    static int forkCutoff(int n, int parallelism, int baseThreshold, int splitFactor, int subProducts) {
+        int targetTasks = Math.max(1, parallelism) * TASKS_PER_WORKER;
+
+        int cutoff = n;
+        int tasks = 1;
+        while (tasks < targetTasks && cutoff / splitFactor >= baseThreshold) {
+            cutoff /= splitFactor;
+            tasks *= subProducts;
+        }
+        return Math.max(cutoff, 2 * baseThreshold);
+    }
+
+    static Polynomial lowPart(Polynomial p, int len) {
+        return new Polynomial(Arrays.copyOfRange(p.getCoeffs(), 0, Math.min(len, p.getLength())));
+    }
+
+    static Polynomial highPart(Polynomial p, int len) {
+        return new Polynomial(Arrays.copyOfRange(p.getCoeffs(), Math.min(len, p.getLength()), p.getLength()));
+    }
+
+    static Polynomial combineKaratsuba(Polynomial z0, Polynomial z1, Polynomial z2, int len) {
         Polynomial middle = Polynomial.subtract(Polynomial.subtract(z1, z0), z2);
+
         Polynomial r1 = z2.shift(2 * len);
         Polynomial r2 = middle.shift(len);
 
         return Polynomial.add(Polynomial.add(r1, r2), z0);
     }
-}
\ No newline at end of file
+}
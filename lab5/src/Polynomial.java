@@ -28,6 +28,14 @@ public class Polynomial {
         return coefficients;
     }
 
+    public int countNonZero() {
+        int count = 0;
+        for (int c : coefficients) {
+            if (c != 0) count++;
+        }
+        return count;
+    }
+
     public static Polynomial add(Polynomial p1, Polynomial p2) {
         int maxLen = Math.max(p1.getLength(), p2.getLength());
         int[] result = new int[maxLen];
@@ -0,0 +1,81 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.SocketChannel;
+
+// Binary framing used between the coordinator and the worker JVMs:
+// [int bodyBytes][int op][int from][int to][int polyCount] then, per polynomial, [int length][length ints].
+public class PolynomialChannel {
+    public static final int OP_REGULAR = 1;
+    public static final int OP_KARATSUBA = 2;
+    public static final int OP_RESULT = 3;
+    public static final int OP_SHUTDOWN = 4;
+
+    private static final int HEADER_INTS = 4;
+
+    public static class Frame {
+        public final int op;
+        public final int from;
+        public final int to;
+        public final Polynomial[] polys;
+
+        public Frame(int op, int from, int to, Polynomial... polys) {
+            this.op = op;
+            this.from = from;
+            this.to = to;
+            this.polys = polys;
+        }
+    }
+
+    public static void send(SocketChannel channel, Frame frame) throws IOException {
+        int bodyInts = HEADER_INTS;
+        for (Polynomial p : frame.polys) {
+            bodyInts += 1 + p.getLength();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 * bodyInts);
+        buffer.putInt(4 * bodyInts);
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.put(frame.op).put(frame.from).put(frame.to).put(frame.polys.length);
+        for (Polynomial p : frame.polys) {
+            ints.put(p.getLength());
+            ints.put(p.getCoeffs());
+        }
+        buffer.clear();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public static Frame receive(SocketChannel channel) throws IOException {
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        readFully(channel, lengthBuffer);
+        int bodyBytes = lengthBuffer.getInt(0);
+
+        ByteBuffer body = ByteBuffer.allocate(bodyBytes);
+        readFully(channel, body);
+        body.flip();
+        IntBuffer ints = body.asIntBuffer();
+
+        int op = ints.get();
+        int from = ints.get();
+        int to = ints.get();
+        Polynomial[] polys = new Polynomial[ints.get()];
+        for (int i = 0; i < polys.length; i++) {
+            int[] coeffs = new int[ints.get()];
+            ints.get(coeffs);
+            polys[i] = new Polynomial(coeffs);
+        }
+        return new Frame(op, from, to, polys);
+    }
+
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed in the middle of a frame.");
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU map from an (unordered) pair of operands to their product. Operands are matched by
+// coefficient contents, so equal polynomials built separately still hit the same entry.
+public class ProductCache {
+    private final Map<Key, Polynomial> entries;
+    private long hits;
+    private long misses;
+
+    public ProductCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Polynomial> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized Polynomial get(Polynomial p1, Polynomial p2) {
+        Polynomial product = entries.get(new Key(p1, p2));
+        if (product != null) hits++;
+        else misses++;
+        return product;
+    }
+
+    public synchronized void put(Polynomial p1, Polynomial p2, Polynomial product) {
+        entries.put(new Key(p1, p2), product);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static class Key {
+        private final int[] a;
+        private final int[] b;
+        private final int hash;
+
+        Key(Polynomial p1, Polynomial p2) {
+            this.a = p1.getCoeffs();
+            this.b = p2.getCoeffs();
+            int h1 = Arrays.hashCode(a);
+            int h2 = Arrays.hashCode(b);
+            // Multiplication is commutative, so (p1, p2) and (p2, p1) must hash the same.
+            this.hash = 31 * Math.min(h1, h2) + Math.max(h1, h2);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            if (hash != other.hash) return false;
+            return (Arrays.equals(a, other.a) && Arrays.equals(b, other.b))
+                    || (Arrays.equals(a, other.b) && Arrays.equals(b, other.a));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+import java.util.concurrent.RecursiveTask;
+
+public class RegularBlockTask extends RecursiveTask<Polynomial> {
+    public static final int BLOCK_SIZE = 1024;
+
+    private final int[] a;
+    private final int[] b;
+    private final int[] result;
+    private final int from;
+    private final int to;
+
+    private RegularBlockTask(int[] a, int[] b, int[] result, int from, int to) {
+        this.a = a;
+        this.b = b;
+        this.result = result;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static RegularBlockTask forProduct(Polynomial p1, Polynomial p2) {
+        int[] result = new int[p1.getLength() + p2.getLength() - 1];
+        return new RegularBlockTask(p1.getCoeffs(), p2.getCoeffs(), result, 0, result.length);
+    }
+
+    // Splits the output range in halves until a block is small enough; blocks never overlap,
+    // so every task writes its own slice of the result without synchronisation.
+    @Override
+    protected Polynomial compute() {
+        if (to - from <= BLOCK_SIZE) {
+            Multiplication.convolveRange(a, b, result, from, to);
+        } else {
+            int mid = (from + to) >>> 1;
+            RegularBlockTask right = new RegularBlockTask(a, b, result, mid, to);
+            right.fork();
+            new RegularBlockTask(a, b, result, from, mid).compute();
+            right.join();
+        }
+        return new Polynomial(result);
+    }
+}
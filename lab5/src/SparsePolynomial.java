@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Polynomial stored as its non-zero terms only: exponents in increasing order, each with its coefficient.
+public class SparsePolynomial {
+    // Row chunks smaller than this are not worth a separate task in the parallel multiplication.
+    private static final int MIN_ROWS_PER_TASK = 16;
+
+    private final int[] exponents;
+    private final int[] coefficients;
+
+    public SparsePolynomial(int[] exponents, int[] coefficients) {
+        this.exponents = exponents;
+        this.coefficients = coefficients;
+    }
+
+    public static SparsePolynomial fromDense(Polynomial p) {
+        int[] coeffs = p.getCoeffs();
+        int terms = p.countNonZero();
+        int[] exponents = new int[terms];
+        int[] coefficients = new int[terms];
+
+        int t = 0;
+        for (int i = 0; i < coeffs.length; i++) {
+            if (coeffs[i] != 0) {
+                exponents[t] = i;
+                coefficients[t] = coeffs[i];
+                t++;
+            }
+        }
+        return new SparsePolynomial(exponents, coefficients);
+    }
+
+    public Polynomial toDense() {
+        return toDense(exponents.length == 0 ? 1 : exponents[exponents.length - 1] + 1);
+    }
+
+    public Polynomial toDense(int length) {
+        int[] result = new int[length];
+        for (int t = 0; t < exponents.length; t++) {
+            result[exponents[t]] = coefficients[t];
+        }
+        return new Polynomial(result);
+    }
+
+    public int getTermCount() {
+        return exponents.length;
+    }
+
+    public int[] getExponents() {
+        return exponents;
+    }
+
+    public int[] getCoeffs() {
+        return coefficients;
+    }
+
+    public static SparsePolynomial multiply(SparsePolynomial p1, SparsePolynomial p2) {
+        SparsePolynomial rows = p1.getTermCount() <= p2.getTermCount() ? p1 : p2;
+        SparsePolynomial cols = rows == p1 ? p2 : p1;
+        return heapMultiply(rows, 0, rows.getTermCount(), cols);
+    }
+
+    // The shorter operand's terms are split into chunks, each chunk is heap-merged independently and the
+    // partial products are summed back together with a linear merge.
+    public static SparsePolynomial multiplyParallel(SparsePolynomial p1, SparsePolynomial p2, ForkJoinPool pool) {
+        SparsePolynomial rows = p1.getTermCount() <= p2.getTermCount() ? p1 : p2;
+        SparsePolynomial cols = rows == p1 ? p2 : p1;
+
+        int chunk = Math.max(MIN_ROWS_PER_TASK, rows.getTermCount() / (4 * pool.getParallelism()) + 1);
+        return pool.invoke(new SparseTask(rows, 0, rows.getTermCount(), cols, chunk));
+    }
+
+    public static SparsePolynomial add(SparsePolynomial p1, SparsePolynomial p2) {
+        int[] exps = new int[p1.exponents.length + p2.exponents.length];
+        int[] coeffs = new int[exps.length];
+
+        int i = 0, j = 0, n = 0;
+        while (i < p1.exponents.length || j < p2.exponents.length) {
+            int e;
+            int c;
+            if (j == p2.exponents.length || (i < p1.exponents.length && p1.exponents[i] < p2.exponents[j])) {
+                e = p1.exponents[i];
+                c = p1.coefficients[i++];
+            } else if (i == p1.exponents.length || p2.exponents[j] < p1.exponents[i]) {
+                e = p2.exponents[j];
+                c = p2.coefficients[j++];
+            } else {
+                e = p1.exponents[i];
+                c = p1.coefficients[i++] + p2.coefficients[j++];
+            }
+            if (c != 0) {
+                exps[n] = e;
+                coeffs[n] = c;
+                n++;
+            }
+        }
+        return new SparsePolynomial(Arrays.copyOf(exps, n), Arrays.copyOf(coeffs, n));
+    }
+
+    // Johnson's heap merge: the heap holds one cursor per row term, pointing at the next column term it
+    // has to be multiplied with, so products come out in increasing exponent order and are summed on the fly.
+    private static SparsePolynomial heapMultiply(SparsePolynomial rows, int from, int to, SparsePolynomial cols) {
+        int size = to - from;
+        if (size <= 0 || cols.getTermCount() == 0) {
+            return new SparsePolynomial(new int[0], new int[0]);
+        }
+
+        int[] heapExp = new int[size];
+        int[] heapRow = new int[size];
+        int[] heapCol = new int[size];
+        // Rows are sorted, so the initial cursors (every row against the first column) already form a heap.
+        for (int h = 0; h < size; h++) {
+            heapExp[h] = rows.exponents[from + h] + cols.exponents[0];
+            heapRow[h] = from + h;
+        }
+
+        int[] outExp = new int[Math.max(16, 2 * size)];
+        int[] outCoeff = new int[outExp.length];
+        int n = 0;
+
+        while (size > 0) {
+            int e = heapExp[0];
+            int r = heapRow[0];
+            int c = heapCol[0];
+            int product = rows.coefficients[r] * cols.coefficients[c];
+
+            if (n > 0 && outExp[n - 1] == e) {
+                outCoeff[n - 1] += product;
+            } else {
+                if (n > 0 && outCoeff[n - 1] == 0) {
+                    n--;
+                }
+                if (n == outExp.length) {
+                    outExp = Arrays.copyOf(outExp, 2 * n);
+                    outCoeff = Arrays.copyOf(outCoeff, 2 * n);
+                }
+                outExp[n] = e;
+                outCoeff[n] = product;
+                n++;
+            }
+
+            if (c + 1 < cols.getTermCount()) {
+                heapExp[0] = rows.exponents[r] + cols.exponents[c + 1];
+                heapCol[0] = c + 1;
+            } else {
+                size--;
+                heapExp[0] = heapExp[size];
+                heapRow[0] = heapRow[size];
+                heapCol[0] = heapCol[size];
+            }
+            siftDown(heapExp, heapRow, heapCol, size);
+        }
+
+        if (n > 0 && outCoeff[n - 1] == 0) {
+            n--;
+        }
+        return new SparsePolynomial(Arrays.copyOf(outExp, n), Arrays.copyOf(outCoeff, n));
+    }
+
+    private static void siftDown(int[] heapExp, int[] heapRow, int[] heapCol, int size) {
+        int h = 0;
+        int e = heapExp[0];
+        int r = heapRow[0];
+        int c = heapCol[0];
+
+        while (true) {
+            int child = 2 * h + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heapExp[child + 1] < heapExp[child]) child++;
+            if (heapExp[child] >= e) break;
+
+            heapExp[h] = heapExp[child];
+            heapRow[h] = heapRow[child];
+            heapCol[h] = heapCol[child];
+            h = child;
+        }
+
+        heapExp[h] = e;
+        heapRow[h] = r;
+        heapCol[h] = c;
+    }
+
+    private static class SparseTask extends RecursiveTask<SparsePolynomial> {
+        private final SparsePolynomial rows;
+        private final int from;
+        private final int to;
+        private final SparsePolynomial cols;
+        private final int chunk;
+
+        SparseTask(SparsePolynomial rows, int from, int to, SparsePolynomial cols, int chunk) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.cols = cols;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected SparsePolynomial compute() {
+            if (to - from <= chunk) {
+                return heapMultiply(rows, from, to, cols);
+            }
+
+            int mid = (from + to) >>> 1;
+            SparseTask right = new SparseTask(rows, mid, to, cols, chunk);
+            right.fork();
+            SparsePolynomial left = new SparseTask(rows, from, mid, cols, chunk).compute();
+            return add(left, right.join());
+        }
+    }
+}
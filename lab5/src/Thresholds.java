@@ -0,0 +1,46 @@
+// Crossover points used by the dispatchers in Multiplication and ToomCook3. Immutable, so one instance can
+// be handed to every task of a product; DEFAULT holds the values measured on Main's degree-20000 inputs.
+public final class Thresholds {
+    public static final Thresholds DEFAULT = new Thresholds(
+            Multiplication.KARATSUBA_THRESHOLD, ToomCook3.TOOM3_THRESHOLD, Multiplication.SPARSE_DENSITY);
+
+    // Karatsuba splits operands of at least this length in half; below 2 a half can be empty and the
+    // recursion never reaches its base case.
+    static final int MIN_KARATSUBA = 2;
+
+    private final int karatsuba;
+    private final int toom3;
+    private final double sparseDensity;
+
+    // karatsuba: shorter operand length below which the schoolbook method is used.
+    // toom3: shorter operand length below which Karatsuba is used instead of another Toom-3 split.
+    // sparseDensity: share of non-zero coefficients below which the sparse multiplication is used.
+    public Thresholds(int karatsuba, int toom3, double sparseDensity) {
+        if (karatsuba < MIN_KARATSUBA || toom3 < karatsuba || sparseDensity < 0) {
+            throw new IllegalArgumentException("Invalid thresholds: " + karatsuba + ", " + toom3 + ", " + sparseDensity);
+        }
+        this.karatsuba = karatsuba;
+        this.toom3 = toom3;
+        this.sparseDensity = sparseDensity;
+    }
+
+    // For the entry points that take the Karatsuba threshold as a plain int.
+    static int checkKaratsuba(int karatsuba) {
+        if (karatsuba < MIN_KARATSUBA) {
+            throw new IllegalArgumentException("Invalid Karatsuba threshold: " + karatsuba);
+        }
+        return karatsuba;
+    }
+
+    public int getKaratsuba() {
+        return karatsuba;
+    }
+
+    public int getToom3() {
+        return toom3;
+    }
+
+    public double getSparseDensity() {
+        return sparseDensity;
+    }
+}
@@ -0,0 +1,185 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class ToomCook3 {
+    // Below this many coefficients (of the shorter operand) Karatsuba is faster than another Toom-3 split.
+    public static final int TOOM3_THRESHOLD = 192;
+
+    // Splits both operands into three parts and multiplies them using the evaluation points
+    // 0, 1, -1, -2 and infinity. Interpolation divides by 2 and 3, which is only exact while the
+    // sub-products do not overflow an int, so canSplit also rejects operands that could overflow.
+    public static Polynomial multiplySequential(Polynomial p1, Polynomial p2) {
+        return multiplySequential(p1, p2, Thresholds.DEFAULT);
+    }
+
+    public static Polynomial multiplySequential(Polynomial p1, Polynomial p2, Thresholds thresholds) {
+        if (!canSplit(p1, p2)) {
+            return Multiplication.multiplySequentialKaratsuba(p1, p2, thresholds.getKaratsuba());
+        }
+
+        int k = partSize(p1, p2);
+        int[][] e1 = evaluate(p1.getCoeffs(), k);
+        int[][] e2 = evaluate(p2.getCoeffs(), k);
+
+        Polynomial[] r = new Polynomial[5];
+        for (int i = 0; i < 5; i++) {
+            r[i] = Multiplication.multiplyDense(new Polynomial(e1[i]), new Polynomial(e2[i]), thresholds);
+        }
+
+        return interpolate(r, k, p1.getLength() + p2.getLength() - 1);
+    }
+
+    public static Polynomial multiplyParallel(Polynomial p1, Polynomial p2, ForkJoinPool pool) {
+        return multiplyParallel(p1, p2, pool, Thresholds.DEFAULT);
+    }
+
+    public static Polynomial multiplyParallel(Polynomial p1, Polynomial p2, ForkJoinPool pool, Thresholds thresholds) {
+        int n = Math.max(p1.getLength(), p2.getLength());
+        int forkCutoff = forkCutoff(n, pool.getParallelism(), thresholds.getKaratsuba());
+        return pool.invoke(new Toom3Task(p1, p2, thresholds, forkCutoff));
+    }
+
+    // Every Toom-3 level produces five sub-products of a third of the size.
+    public static int forkCutoff(int n, int parallelism, int baseThreshold) {
+        return Multiplication.forkCutoff(n, parallelism, Thresholds.checkKaratsuba(baseThreshold), 3, 5);
+    }
+
+    // Toom-3 only pays off when both operands fill all three parts; very unbalanced inputs go to Karatsuba.
+    // The other methods wrap around consistently on overflow, so inputs that might overflow also go there.
+    static boolean canSplit(Polynomial p1, Polynomial p2) {
+        int k = partSize(p1, p2);
+        if (p1.getLength() <= 2 * k || p2.getLength() <= 2 * k) {
+            return false;
+        }
+
+        // Evaluating at -2 grows coefficients by up to 7x per operand, and the interpolation steps add
+        // a few of those sub-product coefficients together before dividing.
+        double bound = 4.0 * 49 * maxAbs(p1) * maxAbs(p2) * k;
+        return bound <= Integer.MAX_VALUE;
+    }
+
+    private static long maxAbs(Polynomial p) {
+        long max = 0;
+        for (int c : p.getCoeffs()) {
+            max = Math.max(max, Math.abs((long) c));
+        }
+        return max;
+    }
+
+    private static int partSize(Polynomial p1, Polynomial p2) {
+        return (Math.max(p1.getLength(), p2.getLength()) + 2) / 3;
+    }
+
+    // Returns the operand evaluated at 0, 1, -1, -2 and infinity, each as a polynomial of at most k coefficients.
+    private static int[][] evaluate(int[] a, int k) {
+        int[] a0 = Arrays.copyOfRange(a, 0, k);
+        int[] a1 = Arrays.copyOfRange(a, k, 2 * k);
+        int[] a2 = Arrays.copyOfRange(a, 2 * k, a.length);
+
+        int[] atOne = new int[k];
+        int[] atMinusOne = new int[k];
+        int[] atMinusTwo = new int[k];
+
+        for (int i = 0; i < k; i++) {
+            int high = i < a2.length ? a2[i] : 0;
+            int even = a0[i] + high;
+            atOne[i] = even + a1[i];
+            atMinusOne[i] = even - a1[i];
+            atMinusTwo[i] = a0[i] - 2 * a1[i] + 4 * high;
+        }
+
+        return new int[][]{a0, atOne, atMinusOne, atMinusTwo, a2};
+    }
+
+    private static Polynomial interpolate(Polynomial[] r, int k, int resultSize) {
+        int[] r0 = r[0].getCoeffs();
+        int[] r1 = r[1].getCoeffs();
+        int[] rm1 = r[2].getCoeffs();
+        int[] rm2 = r[3].getCoeffs();
+        int[] rInf = r[4].getCoeffs();
+
+        int[] result = new int[resultSize];
+        int parts = 2 * k - 1;
+
+        for (int i = 0; i < parts; i++) {
+            int v0 = at(r0, i);
+            int v1 = at(r1, i);
+            int vm1 = at(rm1, i);
+            int vm2 = at(rm2, i);
+            int vInf = at(rInf, i);
+
+            int c3 = (vm2 - v1) / 3;
+            int c1 = (v1 - vm1) / 2;
+            int c2 = vm1 - v0;
+            c3 = (c2 - c3) / 2 + 2 * vInf;
+            c2 = c2 + c1 - vInf;
+            c1 = c1 - c3;
+
+            addAt(result, i, v0);
+            addAt(result, i + k, c1);
+            addAt(result, i + 2 * k, c2);
+            addAt(result, i + 3 * k, c3);
+            addAt(result, i + 4 * k, vInf);
+        }
+
+        return new Polynomial(result);
+    }
+
+    private static int at(int[] a, int i) {
+        return i < a.length ? a[i] : 0;
+    }
+
+    private static void addAt(int[] result, int i, int value) {
+        if (i < result.length) {
+            result[i] += value;
+        }
+    }
+
+    private static class Toom3Task extends RecursiveTask<Polynomial> {
+        private final Polynomial p1;
+        private final Polynomial p2;
+        private final Thresholds thresholds;
+        private final int forkCutoff;
+
+        Toom3Task(Polynomial p1, Polynomial p2, Thresholds thresholds, int forkCutoff) {
+            this.p1 = p1;
+            this.p2 = p2;
+            this.thresholds = thresholds;
+            this.forkCutoff = forkCutoff;
+        }
+
+        @Override
+        protected Polynomial compute() {
+            int n = Math.max(p1.getLength(), p2.getLength());
+            if (n < forkCutoff || getSurplusQueuedTaskCount() > Multiplication.SURPLUS_LIMIT) {
+                return Multiplication.multiplyDense(p1, p2, thresholds);
+            }
+
+            int shorter = Math.min(p1.getLength(), p2.getLength());
+            if (shorter < thresholds.getToom3() || !canSplit(p1, p2)) {
+                int base = thresholds.getKaratsuba();
+                int karatsubaCutoff = KaratsubaTask.forkCutoff(n, getPool().getParallelism(), base);
+                return new KaratsubaTask(p1, p2, base, Math.max(karatsubaCutoff, forkCutoff)).compute();
+            }
+
+            int k = partSize(p1, p2);
+            int[][] e1 = evaluate(p1.getCoeffs(), k);
+            int[][] e2 = evaluate(p2.getCoeffs(), k);
+
+            Toom3Task[] tasks = new Toom3Task[5];
+            for (int i = 1; i < 5; i++) {
+                tasks[i] = new Toom3Task(new Polynomial(e1[i]), new Polynomial(e2[i]), thresholds, forkCutoff);
+                tasks[i].fork();
+            }
+
+            Polynomial[] r = new Polynomial[5];
+            r[0] = new Toom3Task(new Polynomial(e1[0]), new Polynomial(e2[0]), thresholds, forkCutoff).compute();
+            for (int i = 4; i >= 1; i--) {
+                r[i] = tasks[i].join();
+            }
+
+            return interpolate(r, k, p1.getLength() + p2.getLength() - 1);
+        }
+    }
+}
@@ -1,30 +1,235 @@
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 
+// Immutable directed graph in compressed sparse row form: the out-edges of v are
+// outTargets[outOffsets[v] .. outOffsets[v + 1]), in insertion order, and the in-edges are stored
+// the same way. Build one with DirectedGraph.Builder.
 public class DirectedGraph {
+    // Graphs up to this many vertices get a full adjacency bit matrix (n * n bits, 32 MB at the limit).
+    private static final int MATRIX_VERTEX_LIMIT = 16384;
+
     private final int numVertices;
-    private final List<List<Integer>> adjList;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final long[] adjacencyBits;
+    private final EdgeSet edgeSet;
 
-    public DirectedGraph(int numVertices) {
+    private DirectedGraph(int numVertices, int[] outOffsets, int[] outTargets, int[] inOffsets, int[] inSources) {
         this.numVertices = numVertices;
-        this.adjList = new ArrayList<>(numVertices);
-        for (int i = 0; i < numVertices; i++) {
-            this.adjList.add(new ArrayList<>());
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+
+        if (numVertices <= MATRIX_VERTEX_LIMIT) {
+            this.adjacencyBits = new long[(int) (((long) numVertices * numVertices + 63) >>> 6)];
+            this.edgeSet = null;
+            for (int v = 0; v < numVertices; v++) {
+                for (int e = outOffsets[v]; e < outOffsets[v + 1]; e++) {
+                    long bit = (long) v * numVertices + outTargets[e];
+                    adjacencyBits[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        } else {
+            this.adjacencyBits = null;
+            this.edgeSet = new EdgeSet(outTargets.length);
+            for (int v = 0; v < numVertices; v++) {
+                for (int e = outOffsets[v]; e < outOffsets[v + 1]; e++) {
+                    edgeSet.add(edgeKey(v, outTargets[e]));
+                }
+            }
         }
     }
 
-    public void addEdge(int src, int dest) {
-        if (!adjList.get(src).contains(dest)) {
-            adjList.get(src).add(dest);
+    public boolean hasEdge(int src, int dest) {
+        if (adjacencyBits != null) {
+            long bit = (long) src * numVertices + dest;
+            return (adjacencyBits[(int) (bit >>> 6)] & (1L << bit)) != 0;
         }
+        return edgeSet.contains(edgeKey(src, dest));
+    }
+
+    // Out-edges of v are the edge indices [outStart(v), outEnd(v)); target(e) is where edge e points.
+    public int outStart(int vertex) {
+        return outOffsets[vertex];
     }
 
-    public List<Integer> getNeighbors(int vertex) {
-        return Collections.unmodifiableList(adjList.get(vertex));
+    public int outEnd(int vertex) {
+        return outOffsets[vertex + 1];
+    }
+
+    public int target(int edge) {
+        return outTargets[edge];
+    }
+
+    public int outDegree(int vertex) {
+        return outOffsets[vertex + 1] - outOffsets[vertex];
+    }
+
+    // In-edges of v are the indices [inStart(v), inEnd(v)); source(e) is where in-edge e comes from.
+    public int inStart(int vertex) {
+        return inOffsets[vertex];
+    }
+
+    public int inEnd(int vertex) {
+        return inOffsets[vertex + 1];
+    }
+
+    public int source(int edge) {
+        return inSources[edge];
+    }
+
+    public int inDegree(int vertex) {
+        return inOffsets[vertex + 1] - inOffsets[vertex];
+    }
+
+    public int[] getNeighbors(int vertex) {
+        return Arrays.copyOfRange(outTargets, outOffsets[vertex], outOffsets[vertex + 1]);
     }
 
     public int getNumVertices() {
         return numVertices;
     }
-}
\ No newline at end of file
+
+    public int getNumEdges() {
+        return outTargets.length;
+    }
+
+    private static long edgeKey(int src, int dest) {
+        return ((long) src << 32) | (dest & 0xFFFFFFFFL);
+    }
+
+    public static class Builder {
+        private final int numVertices;
+        private int[] sources;
+        private int[] targets;
+        private int edgeCount;
+
+        public Builder(int numVertices) {
+            this.numVertices = numVertices;
+            this.sources = new int[Math.max(16, numVertices)];
+            this.targets = new int[this.sources.length];
+        }
+
+        // Takes over already filled edge arrays (used by the loader and generator) without copying them.
+        public Builder(int numVertices, int[] sources, int[] targets, int edgeCount) {
+            this.numVertices = numVertices;
+            this.sources = sources;
+            this.targets = targets;
+            this.edgeCount = edgeCount;
+            for (int e = 0; e < edgeCount; e++) {
+                checkEdge(sources[e], targets[e]);
+            }
+        }
+
+        public Builder addEdge(int src, int dest) {
+            checkEdge(src, dest);
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, Math.max(16, 2 * edgeCount));
+                targets = Arrays.copyOf(targets, sources.length);
+            }
+            sources[edgeCount] = src;
+            targets[edgeCount] = dest;
+            edgeCount++;
+            return this;
+        }
+
+        private void checkEdge(int src, int dest) {
+            if (src < 0 || src >= numVertices || dest < 0 || dest >= numVertices) {
+                throw new IndexOutOfBoundsException("Edge " + src + " -> " + dest + " outside 0.." + (numVertices - 1));
+            }
+        }
+
+        // Counting sort by source keeps each vertex's edges in insertion order; repeated edges are dropped.
+        public DirectedGraph build() {
+            int[] outOffsets = new int[numVertices + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                outOffsets[sources[e] + 1]++;
+            }
+            for (int v = 0; v < numVertices; v++) {
+                outOffsets[v + 1] += outOffsets[v];
+            }
+
+            int[] next = Arrays.copyOf(outOffsets, numVertices);
+            int[] sorted = new int[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                sorted[next[sources[e]]++] = targets[e];
+            }
+
+            int[] lastSeenFrom = new int[numVertices];
+            Arrays.fill(lastSeenFrom, -1);
+            int[] outTargets = new int[edgeCount];
+            int unique = 0;
+            for (int v = 0; v < numVertices; v++) {
+                int rowStart = outOffsets[v];
+                int rowEnd = outOffsets[v + 1];
+                outOffsets[v] = unique;
+                for (int e = rowStart; e < rowEnd; e++) {
+                    int dest = sorted[e];
+                    if (lastSeenFrom[dest] != v) {
+                        lastSeenFrom[dest] = v;
+                        outTargets[unique++] = dest;
+                    }
+                }
+            }
+            outOffsets[numVertices] = unique;
+            outTargets = Arrays.copyOf(outTargets, unique);
+
+            int[] inOffsets = new int[numVertices + 1];
+            for (int dest : outTargets) {
+                inOffsets[dest + 1]++;
+            }
+            for (int v = 0; v < numVertices; v++) {
+                inOffsets[v + 1] += inOffsets[v];
+            }
+            int[] inNext = Arrays.copyOf(inOffsets, numVertices);
+            int[] inSources = new int[unique];
+            for (int v = 0; v < numVertices; v++) {
+                for (int e = outOffsets[v]; e < outOffsets[v + 1]; e++) {
+                    inSources[inNext[outTargets[e]]++] = v;
+                }
+            }
+
+            return new DirectedGraph(numVertices, outOffsets, outTargets, inOffsets, inSources);
+        }
+    }
+
+    // Open-addressing hash set of packed (src, dest) pairs, used instead of the bit matrix for large graphs.
+    private static class EdgeSet {
+        private static final long EMPTY = -1L;
+
+        private final long[] slots;
+        private final int mask;
+
+        EdgeSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+            this.slots = new long[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(slots, EMPTY);
+        }
+
+        void add(long key) {
+            int i = slot(key);
+            while (slots[i] != EMPTY) {
+                if (slots[i] == key) return;
+                i = (i + 1) & mask;
+            }
+            slots[i] = key;
+        }
+
+        boolean contains(long key) {
+            int i = slot(key);
+            while (slots[i] != EMPTY) {
+                if (slots[i] == key) return true;
+                i = (i + 1) & mask;
+            }
+            return false;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 32) & mask;
+        }
+    }
+}
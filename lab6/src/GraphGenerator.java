@@ -0,0 +1,151 @@
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Seeded generators for benchmark graphs. Vertices are generated in fixed-size blocks, each with its own
+// random stream derived from the seed and the block index, so the same seed gives the same graph no
+// matter how many threads the pool has.
+public class GraphGenerator {
+    private static final int BLOCK_VERTICES = 4096;
+
+    // Every vertex gets outDegree edges to uniformly random other vertices (repeats are merged by the builder).
+    public static DirectedGraph random(int numVertices, int outDegree, long seed, ForkJoinPool pool) {
+        int[] sources = new int[numVertices * outDegree];
+        int[] targets = new int[sources.length];
+
+        generate(pool, numVertices, seed, (v, rand) -> {
+            for (int j = 0; j < outDegree; j++) {
+                int e = v * outDegree + j;
+                sources[e] = v;
+                targets[e] = randomOther(rand, numVertices, v);
+            }
+        });
+
+        return new DirectedGraph.Builder(numVertices, sources, targets, sources.length).build();
+    }
+
+    // The graph Main's default run has always used, edge for edge: the ring edges, then for every vertex
+    // chordsPerVertex draws from one sequential java.util.Random, skipping draws that hit the vertex itself.
+    // Kept so benchmark numbers stay comparable with earlier runs; ringWithChords is the parallel version.
+    public static DirectedGraph baselineRing(int numVertices, int chordsPerVertex, long seed) {
+        DirectedGraph.Builder builder = new DirectedGraph.Builder(numVertices);
+
+        for (int i = 0; i < numVertices; i++) {
+            builder.addEdge(i, (i + 1) % numVertices);
+        }
+
+        Random rand = new Random(seed);
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < chordsPerVertex; j++) {
+                int target = rand.nextInt(numVertices);
+                if (target != i) builder.addEdge(i, target);
+            }
+        }
+
+        return builder.build();
+    }
+
+    // Same shape as baselineRing, the ring edge i -> i + 1 first and then random chords, but generated in
+    // parallel from per-block streams; chords that hit the vertex itself are redrawn, not skipped.
+    public static DirectedGraph ringWithChords(int numVertices, int chordsPerVertex, long seed, ForkJoinPool pool) {
+        int perVertex = chordsPerVertex + 1;
+        int[] sources = new int[numVertices * perVertex];
+        int[] targets = new int[sources.length];
+
+        generate(pool, numVertices, seed, (v, rand) -> {
+            int e = v * perVertex;
+            sources[e] = v;
+            targets[e] = (v + 1) % numVertices;
+            for (int j = 1; j < perVertex; j++) {
+                sources[e + j] = v;
+                targets[e + j] = randomOther(rand, numVertices, v);
+            }
+        });
+
+        return new DirectedGraph.Builder(numVertices, sources, targets, sources.length).build();
+    }
+
+    // A Hamiltonian cycle through a random permutation of the vertices plus decoy edges, with the cycle
+    // edge at a random position in each adjacency list. Low decoy counts keep the graph sparse enough that
+    // blind search gets lost while a cycle is still guaranteed to exist.
+    public static DirectedGraph nearHamiltonian(int numVertices, int decoysPerVertex, long seed, ForkJoinPool pool) {
+        int[] order = new int[numVertices];
+        for (int i = 0; i < numVertices; i++) {
+            order[i] = i;
+        }
+        SplittableRandom shuffle = new SplittableRandom(seed);
+        for (int i = numVertices - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        int[] successor = new int[numVertices];
+        for (int i = 0; i < numVertices; i++) {
+            successor[order[i]] = order[(i + 1) % numVertices];
+        }
+
+        int perVertex = decoysPerVertex + 1;
+        int[] sources = new int[numVertices * perVertex];
+        int[] targets = new int[sources.length];
+
+        generate(pool, numVertices, ~seed, (v, rand) -> {
+            int e = v * perVertex;
+            int cycleSlot = rand.nextInt(perVertex);
+            for (int j = 0; j < perVertex; j++) {
+                sources[e + j] = v;
+                targets[e + j] = j == cycleSlot ? successor[v] : randomOther(rand, numVertices, v);
+            }
+        });
+
+        return new DirectedGraph.Builder(numVertices, sources, targets, sources.length).build();
+    }
+
+    private static int randomOther(SplittableRandom rand, int numVertices, int vertex) {
+        if (numVertices == 1) return vertex;
+        int target = rand.nextInt(numVertices - 1);
+        return target >= vertex ? target + 1 : target;
+    }
+
+    private interface VertexFiller {
+        void fill(int vertex, SplittableRandom rand);
+    }
+
+    private static void generate(ForkJoinPool pool, int numVertices, long seed, VertexFiller filler) {
+        int blocks = (numVertices + BLOCK_VERTICES - 1) / BLOCK_VERTICES;
+        pool.invoke(new BlockTask(0, blocks, numVertices, seed, filler));
+    }
+
+    private static class BlockTask extends RecursiveAction {
+        private final int fromBlock;
+        private final int toBlock;
+        private final int numVertices;
+        private final long seed;
+        private final VertexFiller filler;
+
+        BlockTask(int fromBlock, int toBlock, int numVertices, long seed, VertexFiller filler) {
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+            this.numVertices = numVertices;
+            this.seed = seed;
+            this.filler = filler;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock > 1) {
+                int mid = (fromBlock + toBlock) >>> 1;
+                invokeAll(new BlockTask(fromBlock, mid, numVertices, seed, filler),
+                        new BlockTask(mid, toBlock, numVertices, seed, filler));
+                return;
+            }
+
+            SplittableRandom rand = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + fromBlock);
+            int end = Math.min(numVertices, (fromBlock + 1) * BLOCK_VERTICES);
+            for (int v = fromBlock * BLOCK_VERTICES; v < end; v++) {
+                filler.fill(v, rand);
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Loads edge lists by memory-mapping the file and parsing fixed-size chunks in parallel.
+//
+// Text format: one "src dst" pair per line, separated by spaces or tabs; empty lines and lines starting
+// with '#' or '%' are skipped. The vertex count is the largest id plus one.
+// Binary format (little-endian): int numVertices, int numEdges, then numEdges (src, dst) int pairs.
+public class GraphLoader {
+    private static final long TEXT_CHUNK_BYTES = 8L << 20;
+    private static final int MAX_LINE_BYTES = 1 << 16;
+    private static final int BINARY_CHUNK_EDGES = 1 << 20;
+    private static final int BINARY_HEADER_BYTES = 8;
+
+    public static DirectedGraph loadText(Path file, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<TextChunk> chunks = new ArrayList<>();
+            for (long start = 0; start < size; start += TEXT_CHUNK_BYTES) {
+                chunks.add(new TextChunk(channel, start, Math.min(size, start + TEXT_CHUNK_BYTES), size));
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(chunks);
+                }
+            });
+
+            int edgeCount = 0;
+            int maxVertex = -1;
+            for (TextChunk chunk : chunks) {
+                edgeCount += chunk.count;
+                maxVertex = Math.max(maxVertex, chunk.maxVertex);
+            }
+
+            int[] sources = new int[edgeCount];
+            int[] targets = new int[edgeCount];
+            int offset = 0;
+            for (TextChunk chunk : chunks) {
+                System.arraycopy(chunk.sources, 0, sources, offset, chunk.count);
+                System.arraycopy(chunk.targets, 0, targets, offset, chunk.count);
+                offset += chunk.count;
+            }
+
+            return new DirectedGraph.Builder(maxVertex + 1, sources, targets, edgeCount).build();
+        }
+    }
+
+    public static DirectedGraph loadBinary(Path file, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BINARY_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int numVertices = header.getInt(0);
+            int numEdges = header.getInt(4);
+            if (channel.size() < BINARY_HEADER_BYTES + 8L * numEdges) {
+                throw new IOException("Binary edge list " + file + " is truncated: expected " + numEdges + " edges.");
+            }
+
+            int[] sources = new int[numEdges];
+            int[] targets = new int[numEdges];
+
+            // Every chunk decodes its own range of edges straight into the final arrays.
+            List<RecursiveAction> chunks = new ArrayList<>();
+            for (int first = 0; first < numEdges; first += BINARY_CHUNK_EDGES) {
+                int from = first;
+                int to = Math.min(numEdges, first + BINARY_CHUNK_EDGES);
+                chunks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        IntBuffer ints = map(channel, BINARY_HEADER_BYTES + 8L * from, 8L * (to - from))
+                                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                        for (int e = from; e < to; e++) {
+                            sources[e] = ints.get();
+                            targets[e] = ints.get();
+                        }
+                    }
+                });
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(chunks);
+                }
+            });
+
+            return new DirectedGraph.Builder(numVertices, sources, targets, numEdges).build();
+        }
+    }
+
+    public static void writeBinary(DirectedGraph graph, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(graph.getNumVertices());
+            out.putInt(graph.getNumEdges());
+            for (int v = 0; v < graph.getNumVertices(); v++) {
+                for (int e = graph.outStart(v); e < graph.outEnd(v); e++) {
+                    if (out.remaining() < 8) {
+                        drain(channel, out);
+                    }
+                    out.putInt(v);
+                    out.putInt(graph.target(e));
+                }
+            }
+            drain(channel, out);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long length) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not map bytes " + position + ".." + (position + length), e);
+        }
+    }
+
+    // A chunk owns every line that starts inside [start, end). It maps a little past end so the last
+    // of its lines can be read completely, and skips the partial line it begins in (the previous chunk owns it).
+    private static class TextChunk extends RecursiveAction {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final long fileSize;
+
+        private int[] sources = new int[1024];
+        private int[] targets = new int[1024];
+        private int count;
+        private int maxVertex = -1;
+
+        TextChunk(FileChannel channel, long start, long end, long fileSize) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.fileSize = fileSize;
+        }
+
+        @Override
+        protected void compute() {
+            long mapStart = start == 0 ? 0 : start - 1;
+            long mapEnd = Math.min(fileSize, end + MAX_LINE_BYTES);
+            MappedByteBuffer buffer = map(channel, mapStart, mapEnd - mapStart);
+            int limit = (int) (mapEnd - mapStart);
+            int ownedEnd = (int) (end - mapStart);
+
+            int pos = 0;
+            if (start > 0) {
+                // Byte start - 1 tells whether this chunk begins at a line start.
+                while (pos < limit && buffer.get(pos) != '\n') pos++;
+                pos++;
+            }
+
+            while (pos < ownedEnd && pos < limit) {
+                byte first = buffer.get(pos);
+                if (first == '#' || first == '%') {
+                    pos = skipLine(buffer, pos, limit);
+                    continue;
+                }
+
+                pos = skipBlanks(buffer, pos, limit);
+                if (pos >= limit || buffer.get(pos) == '\n' || buffer.get(pos) == '\r') {
+                    pos = skipLine(buffer, pos, limit);
+                    continue;
+                }
+
+                int src = 0;
+                while (pos < limit && isDigit(buffer.get(pos))) {
+                    src = src * 10 + (buffer.get(pos++) - '0');
+                }
+                pos = skipBlanks(buffer, pos, limit);
+                if (pos >= limit || !isDigit(buffer.get(pos))) {
+                    throw new IllegalArgumentException("Malformed edge line near byte " + (mapStart + pos));
+                }
+                int dst = 0;
+                while (pos < limit && isDigit(buffer.get(pos))) {
+                    dst = dst * 10 + (buffer.get(pos++) - '0');
+                }
+                if (pos == limit && mapEnd < fileSize) {
+                    throw new IllegalArgumentException("Edge line longer than " + MAX_LINE_BYTES + " bytes near byte " + (mapStart + pos));
+                }
+
+                add(src, dst);
+                pos = skipLine(buffer, pos, limit);
+            }
+        }
+
+        private void add(int src, int dst) {
+            if (count == sources.length) {
+                sources = Arrays.copyOf(sources, 2 * count);
+                targets = Arrays.copyOf(targets, 2 * count);
+            }
+            sources[count] = src;
+            targets[count] = dst;
+            count++;
+            maxVertex = Math.max(maxVertex, Math.max(src, dst));
+        }
+
+        private static int skipLine(ByteBuffer buffer, int pos, int limit) {
+            while (pos < limit && buffer.get(pos) != '\n') pos++;
+            return pos + 1;
+        }
+
+        private static int skipBlanks(ByteBuffer buffer, int pos, int limit) {
+            while (pos < limit && (buffer.get(pos) == ' ' || buffer.get(pos) == '\t')) pos++;
+            return pos;
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+    }
+}
@@ -0,0 +1,185 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Held-Karp style dynamic programming over subsets, for graphs small enough to keep one int per subset.
+// The start vertex is left out of the subsets; every other vertex gets a bit. reachable[mask] has bit v
+// set when some path starts at startNode, visits exactly the vertices in mask and ends at v.
+// Subsets are processed layer by layer (by number of vertices), each layer in parallel.
+public class HamiltonianSearchDP {
+    // One int per subset of the non-start vertices; int bit sets also cap the non-start vertices at 30.
+    public static final int MAX_VERTICES = 31;
+    // Masks handled by one task before it stops splitting its rank range.
+    private static final int MASKS_PER_TASK = 4096;
+
+    private final DirectedGraph graph;
+    private final int startNode;
+    private final int bits;
+    private final int[] vertexOfBit;
+    private final int[] predecessorBits;
+    private final int fromStartBits;
+    private final int toStartBits;
+    private final long[][] binomial;
+
+    public HamiltonianSearchDP(DirectedGraph graph, int startNode) {
+        if (graph.getNumVertices() > MAX_VERTICES) {
+            throw new IllegalArgumentException("Subset DP supports at most " + MAX_VERTICES + " vertices, got " + graph.getNumVertices());
+        }
+        this.graph = graph;
+        this.startNode = startNode;
+        this.bits = graph.getNumVertices() - 1;
+
+        this.vertexOfBit = new int[bits];
+        int[] bitOfVertex = new int[graph.getNumVertices()];
+        for (int v = 0, b = 0; v < graph.getNumVertices(); v++) {
+            if (v == startNode) {
+                bitOfVertex[v] = -1;
+            } else {
+                vertexOfBit[b] = v;
+                bitOfVertex[v] = b++;
+            }
+        }
+
+        this.predecessorBits = new int[bits];
+        int fromStart = 0;
+        int toStart = 0;
+        for (int u = 0; u < graph.getNumVertices(); u++) {
+            for (int e = graph.outStart(u); e < graph.outEnd(u); e++) {
+                int v = graph.target(e);
+                if (u == startNode && v != startNode) {
+                    fromStart |= 1 << bitOfVertex[v];
+                } else if (v == startNode && u != startNode) {
+                    toStart |= 1 << bitOfVertex[u];
+                } else if (u != startNode && u != v) {
+                    predecessorBits[bitOfVertex[v]] |= 1 << bitOfVertex[u];
+                }
+            }
+        }
+        this.fromStartBits = fromStart;
+        this.toStartBits = toStart;
+
+        this.binomial = new long[bits + 1][bits + 1];
+        for (int n = 0; n <= bits; n++) {
+            binomial[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                binomial[n][k] = binomial[n - 1][k - 1] + binomial[n - 1][k];
+            }
+        }
+    }
+
+    public static long memoryNeeded(int numVertices) {
+        return 4L << Math.max(0, numVertices - 1);
+    }
+
+    public static boolean fitsInMemory(int numVertices, long memoryBudget) {
+        return numVertices <= MAX_VERTICES && memoryNeeded(numVertices) <= memoryBudget;
+    }
+
+    public List<Integer> solve(ForkJoinPool pool) {
+        if (bits == 0) {
+            return graph.hasEdge(startNode, startNode) ? Collections.singletonList(startNode) : null;
+        }
+
+        int[] reachable = new int[1 << bits];
+        for (int b = 0; b < bits; b++) {
+            reachable[1 << b] = fromStartBits & (1 << b);
+        }
+
+        for (int size = 2; size <= bits; size++) {
+            pool.invoke(new LayerTask(reachable, size, 0, binomial[bits][size]));
+        }
+
+        int full = (1 << bits) - 1;
+        int ends = reachable[full] & toStartBits;
+        if (ends == 0) {
+            return null;
+        }
+
+        return reconstruct(reachable, full, Integer.numberOfTrailingZeros(ends));
+    }
+
+    // Walks back from the last vertex: at every step some predecessor must have been reachable on the
+    // subset without the current vertex, otherwise the current bit would not have been set.
+    private List<Integer> reconstruct(int[] reachable, int full, int lastBit) {
+        List<Integer> path = new ArrayList<>(bits + 1);
+        int mask = full;
+        int current = lastBit;
+
+        while (true) {
+            path.add(vertexOfBit[current]);
+            int previousMask = mask ^ (1 << current);
+            if (previousMask == 0) break;
+
+            int candidates = reachable[previousMask] & predecessorBits[current];
+            current = Integer.numberOfTrailingZeros(candidates);
+            mask = previousMask;
+        }
+
+        path.add(startNode);
+        Collections.reverse(path);
+        return path;
+    }
+
+    // Returns the mask with the given rank among all masks of `size` bits, in increasing numeric order.
+    private int unrank(long rank, int size) {
+        int mask = 0;
+        for (int position = bits - 1; position >= 0 && size > 0; position--) {
+            long below = binomial[position][size];
+            if (rank >= below) {
+                mask |= 1 << position;
+                rank -= below;
+                size--;
+            }
+        }
+        return mask;
+    }
+
+    // Next larger int with the same number of set bits (Gosper's hack).
+    private static int nextMask(int mask) {
+        int lowest = mask & -mask;
+        int ripple = mask + lowest;
+        return ripple | (((mask ^ ripple) >>> 2) / lowest);
+    }
+
+    private class LayerTask extends RecursiveAction {
+        private final int[] reachable;
+        private final int size;
+        private final long fromRank;
+        private final long toRank;
+
+        LayerTask(int[] reachable, int size, long fromRank, long toRank) {
+            this.reachable = reachable;
+            this.size = size;
+            this.fromRank = fromRank;
+            this.toRank = toRank;
+        }
+
+        // Each mask only reads the layer below and writes its own slot, so the ranges never conflict.
+        @Override
+        protected void compute() {
+            if (toRank - fromRank > MASKS_PER_TASK) {
+                long mid = (fromRank + toRank) >>> 1;
+                invokeAll(new LayerTask(reachable, size, fromRank, mid), new LayerTask(reachable, size, mid, toRank));
+                return;
+            }
+
+            int mask = unrank(fromRank, size);
+            for (long rank = fromRank; rank < toRank; rank++) {
+                int ends = 0;
+                for (int rest = mask; rest != 0; rest &= rest - 1) {
+                    int b = Integer.numberOfTrailingZeros(rest);
+                    if ((reachable[mask ^ (1 << b)] & predecessorBits[b]) != 0) {
+                        ends |= 1 << b;
+                    }
+                }
+                reachable[mask] = ends;
+
+                if (rank + 1 < toRank) {
+                    mask = nextMask(mask);
+                }
+            }
+        }
+    }
+}
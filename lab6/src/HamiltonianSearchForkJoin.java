@@ -1,56 +1,150 @@
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class HamiltonianSearchForkJoin extends RecursiveTask<List<Integer>> {
+    // Paths shorter than this may still fork; deeper subtrees are searched sequentially inside one task.
+    public static final int DEFAULT_FORK_DEPTH = 8;
+    // Stop forking while this worker already has more queued tasks than this waiting to be stolen.
+    private static final int SURPLUS_LIMIT = 2;
+    // ForkJoinTask tag values: compute() and cancelAll race to move a task off UNCLAIMED, and only the
+    // winner acts, so a task is either searched or counted as cancelled, never both.
+    private static final short UNCLAIMED = 0;
+    private static final short STARTED = 1;
+    private static final short CANCELLED = 2;
+
     private final DirectedGraph graph;
-    private final int current;
-    private final List<Integer> path;
+    private final SearchState state;
     private final int startNode;
     private final AtomicBoolean solutionFound;
+    private final AtomicReference<List<Integer>> solution;
+    private final SearchPruning pruning;
+    private final int forkDepth;
+    private final SearchStats stats;
+    // Set just before fork(), so compute() can tell whether another worker stole the task.
+    private Thread forkedBy;
+
+    public HamiltonianSearchForkJoin(DirectedGraph graph, int startNode, AtomicBoolean solutionFound) {
+        this(graph, startNode, solutionFound, new SearchPruning(graph, startNode, true));
+    }
+
+    public HamiltonianSearchForkJoin(DirectedGraph graph, int startNode, AtomicBoolean solutionFound, SearchPruning pruning) {
+        this(graph, startNode, solutionFound, pruning, DEFAULT_FORK_DEPTH);
+    }
+
+    public HamiltonianSearchForkJoin(DirectedGraph graph, int startNode, AtomicBoolean solutionFound, SearchPruning pruning, int forkDepth) {
+        this(graph, new SearchState(graph.getNumVertices(), startNode), startNode, solutionFound,
+                new AtomicReference<>(null), pruning, forkDepth, new SearchStats());
+    }
 
-    public HamiltonianSearchForkJoin(DirectedGraph graph, int current, List<Integer> path, int startNode, AtomicBoolean solutionFound) {
+    private HamiltonianSearchForkJoin(DirectedGraph graph, SearchState state, int startNode, AtomicBoolean solutionFound,
+                                      AtomicReference<List<Integer>> solution, SearchPruning pruning, int forkDepth,
+                                      SearchStats stats) {
         this.graph = graph;
-        this.current = current;
-        this.path = path;
+        this.state = state;
         this.startNode = startNode;
         this.solutionFound = solutionFound;
+        this.solution = solution;
+        this.pruning = pruning;
+        this.forkDepth = forkDepth;
+        this.stats = stats;
     }
 
+    // Shared by every task of this search; safe to read while it runs for progress reports.
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    // Whichever task completes the cycle first publishes it, so every task returns that shared result
+    // rather than only what its own subtree found.
     @Override
     protected List<Integer> compute() {
-        if (solutionFound.get()) return null;
+        if (!compareAndSetForkJoinTaskTag(UNCLAIMED, STARTED)) {
+            return solution.get();
+        }
 
-        if (path.size() == graph.getNumVertices()) {
-            if (graph.getNeighbors(current).contains(startNode)) {
+        SearchStats.Counters counters = stats.local();
+        if (forkedBy != null && forkedBy != Thread.currentThread()) {
+            counters.addStolen();
+        }
+        if (solutionFound.get()) {
+            counters.addWasted(1);
+        } else {
+            search(counters);
+        }
+        return solution.get();
+    }
+
+    private void search(SearchStats.Counters counters) {
+        if (solutionFound.get()) return;
+        counters.expand(state.size());
+
+        int current = state.last();
+
+        if (state.size() == graph.getNumVertices()) {
+            if (graph.hasEdge(current, startNode) && solution.compareAndSet(null, state.toList())) {
                 solutionFound.set(true);
-                return new ArrayList<>(path);
             }
-            return null;
+            return;
         }
 
-        List<HamiltonianSearchForkJoin> tasks = new ArrayList<>();
+        int base = state.reserveMoves(pruning.maxMoves(current));
+        int moveCount = pruning.nextMoves(state, base);
 
-        for (int neighbor : graph.getNeighbors(current)) {
-            if (!path.contains(neighbor)) {
-                List<Integer> newPath = new ArrayList<>(path);
-                newPath.add(neighbor);
-                tasks.add(new HamiltonianSearchForkJoin(graph, neighbor, newPath, startNode, solutionFound));
+        if (moveCount == 0) {
+            counters.addPruned();
+        } else if (moveCount == 1 || state.size() >= forkDepth || getSurplusQueuedTaskCount() > SURPLUS_LIMIT) {
+            for (int i = 0; i < moveCount && !solutionFound.get(); i++) {
+                state.push(state.moveAt(base + i));
+                search(counters);
+                state.pop();
             }
+        } else {
+            forkMoves(counters, base, moveCount);
         }
 
-        for (HamiltonianSearchForkJoin task : tasks) {
+        state.releaseMoves(base);
+    }
+
+    // The first move is explored in place on this task's state and undone afterwards;
+    // only the other moves are forked, each with its own copy of the state.
+    private void forkMoves(SearchStats.Counters counters, int base, int moveCount) {
+        HamiltonianSearchForkJoin[] tasks = new HamiltonianSearchForkJoin[moveCount - 1];
+        for (int i = 1; i < moveCount; i++) {
+            SearchState childState = state.copy();
+            childState.push(state.moveAt(base + i));
+            HamiltonianSearchForkJoin task = new HamiltonianSearchForkJoin(graph, childState, startNode, solutionFound, solution, pruning, forkDepth, stats);
+            task.forkedBy = Thread.currentThread();
+            tasks[i - 1] = task;
             task.fork();
         }
+        counters.addForked(moveCount - 1);
 
-        for (HamiltonianSearchForkJoin task : tasks) {
-            List<Integer> result = task.join();
-            if (result != null) {
-                return result;
+        state.push(state.moveAt(base));
+        search(counters);
+        state.pop();
+
+        for (int i = tasks.length - 1; i >= 0; i--) {
+            if (solutionFound.get()) {
+                counters.addWasted(cancelAll(tasks));
+                return;
             }
+            tasks[i].join();
         }
+    }
 
-        return null;
+    // Subtasks that have not started are claimed and dropped without ever running; running ones see the flag
+    // and unwind. cancel() alone can't tell the two apart, since it also succeeds on a running task.
+    // Returns how many were dropped.
+    private static int cancelAll(HamiltonianSearchForkJoin[] tasks) {
+        int cancelled = 0;
+        for (HamiltonianSearchForkJoin task : tasks) {
+            if (task.compareAndSetForkJoinTaskTag(UNCLAIMED, CANCELLED)) {
+                task.cancel(false);
+                cancelled++;
+            }
+        }
+        return cancelled;
     }
-}
\ No newline at end of file
+}
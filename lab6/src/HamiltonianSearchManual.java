@@ -1,74 +1,277 @@
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class HamiltonianSearchManual {
     private final DirectedGraph graph;
     private final int startNode;
+    private final SearchPruning pruning;
     private final AtomicReference<List<Integer>> resultPath = new AtomicReference<>(null);
+    private final SearchStats stats = new SearchStats();
 
     public HamiltonianSearchManual(DirectedGraph graph, int startNode) {
+        this(graph, startNode, new SearchPruning(graph, startNode, true));
+    }
+
+    public HamiltonianSearchManual(DirectedGraph graph, int startNode, SearchPruning pruning) {
         this.graph = graph;
         this.startNode = startNode;
+        this.pruning = pruning;
+    }
+
+    // Counters of the last solve on this instance; safe to read while it runs for progress reports.
+    public SearchStats getStats() {
+        return stats;
     }
 
     public List<Integer> solve(int threadCount) throws InterruptedException {
-        List<Integer> initialPath = new ArrayList<>();
-        initialPath.add(startNode);
+        SearchState initialState = new SearchState(graph.getNumVertices(), startNode);
 
-        Thread root = new Thread(() -> search(startNode, initialPath, threadCount));
+        Thread root = new Thread(() -> search(initialState, threadCount, stats.local()));
         root.start();
         root.join();
 
         return resultPath.get();
     }
 
-    private void search(int current, List<Integer> path, int threadsAvailable) {
+    // Fixed set of worker threads fed from a shared frontier of partial paths. A worker searches its path
+    // depth-first and, while other workers are waiting for work, hands some of its untried sibling moves
+    // to the frontier instead of keeping them, so nobody sits blocked in a join while work is left elsewhere.
+    public List<Integer> solvePooled(int threadCount) throws InterruptedException {
+        Frontier frontier = new Frontier();
+
+        Thread[] workers = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            workers[i] = new Thread(() -> runWorker(frontier), "Hamiltonian-Worker-" + i);
+            workers[i].start();
+        }
+
+        // Hand out the initial path only once every worker is waiting, so whoever takes it sees them all
+        // and splits the top of the tree between them instead of diving in alone.
+        frontier.awaitWaiting(threadCount);
+        frontier.donateInitial(new SearchState(graph.getNumVertices(), startNode));
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Donated paths nobody got to before the cycle was found.
+        stats.addAbandoned(frontier.queued());
+
+        return resultPath.get();
+    }
+
+    private void runWorker(Frontier frontier) {
+        SearchStats.Counters counters = stats.local();
+        SearchState state;
+        while ((state = frontier.take()) != null) {
+            // Everything but the initial path was donated by some worker.
+            if (state.size() > 1) counters.addStolen();
+
+            searchShared(state, frontier, counters);
+            frontier.done();
+        }
+    }
+
+    private void searchShared(SearchState state, Frontier frontier, SearchStats.Counters counters) {
         if (resultPath.get() != null) return;
+        counters.expand(state.size());
+
+        int current = state.last();
 
-        if (path.size() == graph.getNumVertices()) {
-            if (graph.getNeighbors(current).contains(startNode)) {
-                resultPath.compareAndSet(null, new ArrayList<>(path));
+        if (state.size() == graph.getNumVertices()) {
+            if (graph.hasEdge(current, startNode)) {
+                resultPath.compareAndSet(null, state.toList());
             }
             return;
         }
 
-        List<Integer> validNeighbors = new ArrayList<>();
-        for (int neighbor : graph.getNeighbors(current)) {
-            if (!path.contains(neighbor)) {
-                validNeighbors.add(neighbor);
+        int base = state.reserveMoves(pruning.maxMoves(current));
+        int moveCount = pruning.nextMoves(state, base);
+        if (moveCount == 0) {
+            counters.addPruned();
+        }
+
+        // At most one path per waiting worker; the last moves go, the first ones are kept.
+        int keep = moveCount;
+        if (moveCount > 1) {
+            int give = Math.min(moveCount - 1, frontier.shortfall());
+            if (give > 0) {
+                keep = moveCount - give;
+                frontier.donate(state, base + keep, give);
+                counters.addForked(give);
+            }
+        }
+
+        for (int i = 0; i < keep && resultPath.get() == null; i++) {
+            state.push(state.moveAt(base + i));
+            searchShared(state, frontier, counters);
+            state.pop();
+        }
+
+        state.releaseMoves(base);
+    }
+
+    // Work queue of the pooled search. Idle workers block on a condition that donations and the end of
+    // the search signal, instead of polling. pending counts the paths that are queued or being searched;
+    // once it drops to zero there is no work left anywhere and the workers exit.
+    private final class Frontier {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final Condition waitingChanged = lock.newCondition();
+        private final ArrayDeque<SearchState> queue = new ArrayDeque<>();
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private int waiting;
+        // Waiting workers minus queued paths, updated under the lock and read without it by donors.
+        private volatile int shortfall;
+
+        void awaitWaiting(int count) {
+            lock.lock();
+            try {
+                while (waiting < count) {
+                    waitingChanged.awaitUninterruptibly();
+                }
+            } finally {
+                lock.unlock();
             }
         }
 
-        if (validNeighbors.isEmpty()) return;
+        // pending already counts the initial path.
+        void donateInitial(SearchState initial) {
+            lock.lock();
+            try {
+                queue.push(initial);
+                updateShortfall();
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int shortfall() {
+            return shortfall;
+        }
+
+        // Hands the count moves starting at moves[from] to the frontier, each on its own copy of state.
+        void donate(SearchState state, int from, int count) {
+            pending.addAndGet(count);
+            lock.lock();
+            try {
+                for (int i = from + count - 1; i >= from; i--) {
+                    SearchState child = state.copy();
+                    child.push(state.moveAt(i));
+                    queue.push(child);
+                    changed.signal();
+                }
+                updateShortfall();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Blocks until a path is available and returns it, or returns null once the search is over.
+        SearchState take() {
+            lock.lock();
+            try {
+                waiting++;
+                updateShortfall();
+                waitingChanged.signal();
+                while (resultPath.get() == null && pending.get() > 0) {
+                    SearchState state = queue.pollFirst();
+                    if (state != null) return state;
+                    changed.awaitUninterruptibly();
+                }
+                return null;
+            } finally {
+                waiting--;
+                updateShortfall();
+                lock.unlock();
+            }
+        }
+
+        // Called after a taken path has been searched.
+        void done() {
+            if (pending.decrementAndGet() == 0 || resultPath.get() != null) {
+                lock.lock();
+                try {
+                    changed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        int queued() {
+            lock.lock();
+            try {
+                return queue.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void updateShortfall() {
+            shortfall = waiting - queue.size();
+        }
+    }
+
+    private void search(SearchState state, int threadsAvailable, SearchStats.Counters counters) {
+        if (resultPath.get() != null) return;
+        counters.expand(state.size());
+
+        int current = state.last();
+
+        if (state.size() == graph.getNumVertices()) {
+            if (graph.hasEdge(current, startNode)) {
+                resultPath.compareAndSet(null, state.toList());
+            }
+            return;
+        }
+
+        int base = state.reserveMoves(pruning.maxMoves(current));
+        int validCount = pruning.nextMoves(state, base);
+
+        if (validCount == 0) {
+            counters.addPruned();
+            state.releaseMoves(base);
+            return;
+        }
 
         if (threadsAvailable <= 1) {
-            for (int neighbor : validNeighbors) {
-                if (resultPath.get() != null) return;
-                path.add(neighbor);
-                search(neighbor, path, 1);
-                path.remove(path.size() - 1);
+            for (int i = 0; i < validCount && resultPath.get() == null; i++) {
+                state.push(state.moveAt(base + i));
+                search(state, 1, counters);
+                state.pop();
             }
+            state.releaseMoves(base);
             return;
         }
 
-        int baseThreads = threadsAvailable / validNeighbors.size();
-        int remainder = threadsAvailable % validNeighbors.size();
+        int baseThreads = threadsAvailable / validCount;
+        int remainder = threadsAvailable % validCount;
 
         List<Thread> childThreads = new ArrayList<>();
 
-        for (int i = 0; i < validNeighbors.size(); i++) {
-            int neighbor = validNeighbors.get(i);
-
+        for (int i = 0; i < validCount; i++) {
             int allocatedThreads = baseThreads + (i < remainder ? 1 : 0);
 
-                List<Integer> newPath = new ArrayList<>(path);
-                newPath.add(neighbor);
+            SearchState childState = state.copy();
+            childState.push(state.moveAt(base + i));
 
-                Thread t = new Thread(() -> search(neighbor, newPath, allocatedThreads));
-                childThreads.add(t);
-                t.start();
+            Thread t = new Thread(() -> {
+                SearchStats.Counters childCounters = stats.local();
+                if (resultPath.get() != null) childCounters.addWasted(1);
+                search(childState, allocatedThreads, childCounters);
+            });
+            childThreads.add(t);
+            t.start();
         }
+        counters.addForked(validCount);
+        state.releaseMoves(base);
 
         for (Thread t : childThreads) {
             try {
@@ -78,4 +281,4 @@ public class HamiltonianSearchManual {
             }
         }
     }
-}
\ No newline at end of file
+}
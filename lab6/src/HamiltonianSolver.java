@@ -0,0 +1,19 @@
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Front end that picks a solver for the graph: the subset DP when its table fits in the memory budget,
+// which gives a predictable worst case, and the pruned fork/join backtracking search otherwise.
+public class HamiltonianSolver {
+
+    public static List<Integer> solve(DirectedGraph graph, int startNode, ForkJoinPool pool) {
+        return solve(graph, startNode, pool, Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    public static List<Integer> solve(DirectedGraph graph, int startNode, ForkJoinPool pool, long memoryBudget) {
+        if (HamiltonianSearchDP.fitsInMemory(graph.getNumVertices(), memoryBudget)) {
+            return new HamiltonianSearchDP(graph, startNode).solve(pool);
+        }
+        return pool.invoke(new HamiltonianSearchForkJoin(graph, startNode, new AtomicBoolean(false)));
+    }
+}
@@ -1,58 +1,113 @@
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Main {
+    private static final long PROGRESS_PERIOD_MS = 1000;
 
-    public static void main(String[] args) throws InterruptedException {
-        int NUM_VERTICES = 100;
-        int MANUAL_THREAD_COUNT = 8;
-
-        DirectedGraph g = new DirectedGraph(NUM_VERTICES);
-
-        for (int i = 0; i < NUM_VERTICES; i++) {
-            g.addEdge(i, (i + 1) % NUM_VERTICES);
+    // No arguments: the same 100-vertex ring with 3 random chords per vertex as earlier runs. Otherwise one of
+    //   --text <file> | --binary <file> | --random <n> <degree> <seed> | --ring <n> <chords> <seed> | --hard <n> <decoys> <seed>
+    private static DirectedGraph buildGraph(String[] args, ForkJoinPool pool) throws IOException {
+        if (args.length == 0) {
+            return GraphGenerator.baselineRing(100, 3, 123);
         }
 
-        Random rand = new Random(123);
-        for (int i = 0; i < NUM_VERTICES; i++) {
-            for (int j = 0; j < 3; j++) {
-                int target = rand.nextInt(NUM_VERTICES);
-                if (target != i) g.addEdge(i, target);
-            }
+        switch (args[0]) {
+            case "--text":
+                return GraphLoader.loadText(Path.of(args[1]), pool);
+            case "--binary":
+                return GraphLoader.loadBinary(Path.of(args[1]), pool);
+            case "--random":
+                return GraphGenerator.random(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]), pool);
+            case "--ring":
+                return GraphGenerator.ringWithChords(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]), pool);
+            case "--hard":
+                return GraphGenerator.nearHamiltonian(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]), pool);
+            default:
+                throw new IllegalArgumentException("Unknown graph source: " + args[0]);
         }
+    }
 
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int MANUAL_THREAD_COUNT = 8;
 
-        System.out.println("Basic Thread Search (Budget: " + MANUAL_THREAD_COUNT + ")...");
+        ForkJoinPool pool = new ForkJoinPool();
 
-        long startManual = System.currentTimeMillis();
+        long startLoad = System.currentTimeMillis();
+        DirectedGraph g = buildGraph(args, pool);
+        long endLoad = System.currentTimeMillis();
 
-        HamiltonianSearchManual manualSolver = new HamiltonianSearchManual(g, 0);
-        List<Integer> pathManual = manualSolver.solve(MANUAL_THREAD_COUNT);
+        System.out.println("Graph: " + g.getNumVertices() + " vertices, " + g.getNumEdges() + " edges (built in " + (endLoad - startLoad) + " ms)");
+        System.out.println("--------------------------------------------------");
+
+        System.out.println("Basic Thread Search (Budget: " + MANUAL_THREAD_COUNT + ")...");
 
+        HamiltonianSearchManual manualSolver = new HamiltonianSearchManual(g, 0);
+        List<Integer> pathManual;
+        long startManual = System.currentTimeMillis();
+        try (SearchStats.ProgressReporter ignored = manualSolver.getStats().startReporting("Basic", PROGRESS_PERIOD_MS)) {
+            pathManual = manualSolver.solve(MANUAL_THREAD_COUNT);
+        }
         long endManual = System.currentTimeMillis();
 
         System.out.println("Basic Search Time: " + (endManual - startManual) + " ms");
         System.out.println("Result: " + (pathManual != null ? "Found Cycle (Length " + pathManual.size() + ")" : "No Cycle Found"));
         System.out.println("--------------------------------------------------");
 
-        System.out.println("Starting ForkJoin Search...");
+        System.out.println("Pooled Worker Search (Workers: " + MANUAL_THREAD_COUNT + ")...");
 
-        long startFJ = System.currentTimeMillis();
+        HamiltonianSearchManual pooledSolver = new HamiltonianSearchManual(g, 0);
+        List<Integer> pathPooled;
+        long startPooled = System.currentTimeMillis();
+        try (SearchStats.ProgressReporter ignored = pooledSolver.getStats().startReporting("Pooled", PROGRESS_PERIOD_MS)) {
+            pathPooled = pooledSolver.solvePooled(MANUAL_THREAD_COUNT);
+        }
+        long endPooled = System.currentTimeMillis();
 
-        ForkJoinPool pool = new ForkJoinPool();
-        List<Integer> initialPath = new ArrayList<>();
-        initialPath.add(0);
-        AtomicBoolean flag = new AtomicBoolean(false);
+        System.out.println("Pooled Search Time: " + (endPooled - startPooled) + " ms");
+        System.out.println("Result: " + (pathPooled != null ? "Found Cycle (Length " + pathPooled.size() + ")" : "No Cycle Found"));
+        System.out.println("--------------------------------------------------");
 
-        HamiltonianSearchForkJoin task = new HamiltonianSearchForkJoin(g, 0, initialPath, 0, flag);
-        List<Integer> pathFJ = pool.invoke(task);
+        System.out.println("Starting ForkJoin Search...");
 
+        AtomicBoolean flag = new AtomicBoolean(false);
+        HamiltonianSearchForkJoin task = new HamiltonianSearchForkJoin(g, 0, flag);
+        List<Integer> pathFJ;
+        long startFJ = System.currentTimeMillis();
+        try (SearchStats.ProgressReporter ignored = task.getStats().startReporting("ForkJoin", PROGRESS_PERIOD_MS)) {
+            pathFJ = pool.invoke(task);
+        }
         long endFJ = System.currentTimeMillis();
+        // Tasks still unwinding after the cycle was found keep counting; let them finish before the summary.
+        pool.awaitQuiescence(1, TimeUnit.SECONDS);
 
         System.out.println("ForkJoin Search Time: " + (endFJ - startFJ) + " ms");
         System.out.println("Result: " + (pathFJ != null ? "Found Cycle (Length " + pathFJ.size() + ")" : "No Cycle Found"));
+        System.out.println("--------------------------------------------------");
+
+        System.out.println("Search Summary:");
+        System.out.println("Basic:    " + manualSolver.getStats().describe(endManual - startManual));
+        System.out.println("Pooled:   " + pooledSolver.getStats().describe(endPooled - startPooled));
+        System.out.println("ForkJoin: " + task.getStats().describe(endFJ - startFJ));
+        System.out.println("Pooled workers:");
+        System.out.print(pooledSolver.getStats().describeWorkers());
+        System.out.println("ForkJoin workers:");
+        System.out.print(task.getStats().describeWorkers());
+        System.out.println("--------------------------------------------------");
+
+        int SMALL_VERTICES = 22;
+        DirectedGraph small = GraphGenerator.baselineRing(SMALL_VERTICES, 3, 123);
+        System.out.println("Dispatcher Search (" + SMALL_VERTICES + " vertices, DP table "
+                + HamiltonianSearchDP.memoryNeeded(SMALL_VERTICES) / (1024 * 1024) + " MB)...");
+
+        long startDP = System.currentTimeMillis();
+        List<Integer> pathDP = HamiltonianSolver.solve(small, 0, pool);
+        long endDP = System.currentTimeMillis();
+
+        System.out.println("Dispatcher Search Time: " + (endDP - startDP) + " ms");
+        System.out.println("Result: " + (pathDP != null ? "Found Cycle (Length " + pathDP.size() + ")" : "No Cycle Found"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+// Decides which moves the Hamiltonian search tries next from a partial path. With pruning enabled it
+// rejects partial paths that can no longer be completed and follows forced moves; with ordering enabled
+// it tries the most constrained vertices first, Warnsdorff-style.
+// The scratch buffers are per thread, so one instance can be shared by all workers of a search.
+public class SearchPruning {
+    private static final int DEAD_END = -2;
+    private static final int NO_FORCED_MOVE = -1;
+
+    private final DirectedGraph graph;
+    private final int startNode;
+    private final boolean prune;
+    private final boolean orderMoves;
+    private final ThreadLocal<Scratch> scratch;
+
+    public SearchPruning(DirectedGraph graph, int startNode, boolean prune) {
+        this(graph, startNode, prune, false);
+    }
+
+    // Ordering pays off when the adjacency lists carry no information. On graphs such as Main's ring,
+    // where the cycle edge is listed first, keeping the adjacency order is much faster.
+    public SearchPruning(DirectedGraph graph, int startNode, boolean prune, boolean orderMoves) {
+        this.graph = graph;
+        this.startNode = startNode;
+        this.prune = prune;
+        this.orderMoves = orderMoves;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(graph.getNumVertices()));
+    }
+
+    public int maxMoves(int vertex) {
+        return graph.outDegree(vertex);
+    }
+
+    // Writes the vertices to try after state.last() to the state's move stack starting at base, in the
+    // order to try them, and returns how many there are. Zero means the partial path is a dead end.
+    // base must come from state.reserveMoves(maxMoves(last)).
+    public int nextMoves(SearchState state, int base) {
+        int[] moves = state.moveBuffer();
+        int current = state.last();
+        int count = 0;
+        for (int e = graph.outStart(current); e < graph.outEnd(current); e++) {
+            int neighbor = graph.target(e);
+            if (!state.isVisited(neighbor)) {
+                moves[base + count++] = neighbor;
+            }
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+
+        if (!prune) {
+            if (orderMoves) orderByConstraint(state, moves, base, count);
+            return count;
+        }
+
+        int forced = findForcedMove(state, current);
+        if (forced == DEAD_END || !allReachable(state, current) || !allReachStart(state)) {
+            return 0;
+        }
+
+        if (forced >= 0) {
+            // A forced vertex can only be entered from current, so it is always among the candidates.
+            moves[base] = forced;
+            return 1;
+        }
+
+        if (orderMoves) orderByConstraint(state, moves, base, count);
+        return count;
+    }
+
+    // Checks every unvisited vertex for a remaining way in and a way out. A vertex whose only way in
+    // is the current vertex must be the next move; two such vertices mean the path cannot be completed.
+    private int findForcedMove(SearchState state, int current) {
+        int forced = NO_FORCED_MOVE;
+
+        for (int v = 0; v < graph.getNumVertices(); v++) {
+            if (state.isVisited(v)) continue;
+
+            int waysIn = 0;
+            boolean onlyFromCurrent = true;
+            for (int e = graph.inStart(v); e < graph.inEnd(v); e++) {
+                int u = graph.source(e);
+                if (u == current || (!state.isVisited(u) && u != v)) {
+                    waysIn++;
+                    if (u != current) onlyFromCurrent = false;
+                    if (waysIn > 1) break;
+                }
+            }
+            if (waysIn == 0) return DEAD_END;
+
+            boolean hasExit = false;
+            for (int e = graph.outStart(v); e < graph.outEnd(v); e++) {
+                int w = graph.target(e);
+                if (w == startNode || (!state.isVisited(w) && w != v)) {
+                    hasExit = true;
+                }
+            }
+            if (!hasExit) return DEAD_END;
+
+            if (waysIn == 1 && onlyFromCurrent) {
+                if (forced != NO_FORCED_MOVE) return DEAD_END;
+                forced = v;
+            }
+        }
+
+        return forced;
+    }
+
+    // Every unvisited vertex must still be reachable from the current one through unvisited vertices.
+    private boolean allReachable(SearchState state, int current) {
+        Scratch s = scratch.get();
+        s.nextMark();
+
+        int head = 0;
+        int tail = 0;
+        s.queue[tail++] = current;
+        s.mark[current] = s.markValue;
+        int reached = 0;
+
+        while (head < tail) {
+            int u = s.queue[head++];
+            for (int e = graph.outStart(u); e < graph.outEnd(u); e++) {
+                int w = graph.target(e);
+                if (!state.isVisited(w) && s.mark[w] != s.markValue) {
+                    s.mark[w] = s.markValue;
+                    s.queue[tail++] = w;
+                    reached++;
+                }
+            }
+        }
+
+        return reached == graph.getNumVertices() - state.size();
+    }
+
+    // Every unvisited vertex must still be able to get back to the start node through unvisited vertices,
+    // or the cycle cannot be closed: a BFS from the start node over the in-edges.
+    private boolean allReachStart(SearchState state) {
+        Scratch s = scratch.get();
+        s.nextMark();
+
+        int head = 0;
+        int tail = 0;
+        s.queue[tail++] = startNode;
+        s.mark[startNode] = s.markValue;
+        int reached = 0;
+
+        while (head < tail) {
+            int u = s.queue[head++];
+            for (int e = graph.inStart(u); e < graph.inEnd(u); e++) {
+                int w = graph.source(e);
+                if (!state.isVisited(w) && s.mark[w] != s.markValue) {
+                    s.mark[w] = s.markValue;
+                    s.queue[tail++] = w;
+                    reached++;
+                }
+            }
+        }
+
+        return reached == graph.getNumVertices() - state.size();
+    }
+
+    // Vertices with the fewest remaining ways in go first, since they are the likeliest to be cut off;
+    // ties go to the vertex with the fewest unvisited exits. The sort is stable, so adjacency order breaks the rest.
+    private void orderByConstraint(SearchState state, int[] moves, int base, int count) {
+        int[] keys = scratch.get().keys;
+        for (int i = 0; i < count; i++) {
+            int v = moves[base + i];
+            int waysIn = 0;
+            for (int e = graph.inStart(v); e < graph.inEnd(v); e++) {
+                if (!state.isVisited(graph.source(e))) waysIn++;
+            }
+            int exits = 0;
+            for (int e = graph.outStart(v); e < graph.outEnd(v); e++) {
+                if (!state.isVisited(graph.target(e))) exits++;
+            }
+            keys[i] = (Math.min(waysIn, 0x7FFF) << 16) | Math.min(exits, 0xFFFF);
+        }
+
+        for (int i = 1; i < count; i++) {
+            int move = moves[base + i];
+            int key = keys[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] > key) {
+                moves[base + j + 1] = moves[base + j];
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            moves[base + j + 1] = move;
+            keys[j + 1] = key;
+        }
+    }
+
+    private static class Scratch {
+        private final int[] queue;
+        private final int[] mark;
+        private final int[] keys;
+        private int markValue;
+
+        Scratch(int numVertices) {
+            this.queue = new int[numVertices];
+            this.mark = new int[numVertices];
+            this.keys = new int[numVertices];
+        }
+
+        void nextMark() {
+            markValue++;
+        }
+    }
+}
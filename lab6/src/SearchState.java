@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Partial path of the Hamiltonian search: the visited set as a bitmask and the path as a primitive stack.
+// Moves are made and undone in place; a copy is only taken when a branch is handed to another thread or task.
+// The candidate moves of every level on the path live on one shared move stack, so expanding a node
+// allocates nothing once the arrays have grown to the depth the search reaches.
+public class SearchState {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int numVertices;
+    private final long[] visited;
+    private int[] path;
+    private int size;
+    private int[] moves;
+    private int movesTop;
+
+    public SearchState(int numVertices, int startNode) {
+        this.numVertices = numVertices;
+        this.visited = new long[(numVertices + 63) >>> 6];
+        this.path = new int[Math.min(numVertices, INITIAL_CAPACITY)];
+        this.moves = new int[INITIAL_CAPACITY];
+        push(startNode);
+    }
+
+    private SearchState(int numVertices, long[] visited, int[] path, int size) {
+        this.numVertices = numVertices;
+        this.visited = visited;
+        this.path = path;
+        this.size = size;
+        this.moves = new int[INITIAL_CAPACITY];
+    }
+
+    // Copies the visited set and the path so far, but not the move stack: the copy starts a new branch.
+    public SearchState copy() {
+        return new SearchState(numVertices, visited.clone(), Arrays.copyOf(path, size), size);
+    }
+
+    public boolean isVisited(int vertex) {
+        return (visited[vertex >>> 6] & (1L << vertex)) != 0;
+    }
+
+    public void push(int vertex) {
+        if (size == path.length) {
+            path = Arrays.copyOf(path, Math.min(numVertices, Math.max(INITIAL_CAPACITY, 2 * size)));
+        }
+        visited[vertex >>> 6] |= 1L << vertex;
+        path[size++] = vertex;
+    }
+
+    public int pop() {
+        int vertex = path[--size];
+        visited[vertex >>> 6] &= ~(1L << vertex);
+        return vertex;
+    }
+
+    public int last() {
+        return path[size - 1];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Reserves count slots on top of the move stack and returns the index of the first one. The slots
+    // stay reserved until releaseMoves(base); deeper levels reserve above them in the meantime.
+    public int reserveMoves(int count) {
+        int base = movesTop;
+        if (base + count > moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(base + count, 2 * moves.length));
+        }
+        movesTop = base + count;
+        return base;
+    }
+
+    public void releaseMoves(int base) {
+        movesTop = base;
+    }
+
+    // The backing array may be replaced when a deeper level reserves more room, so fetch it again
+    // instead of holding on to it across a recursive call.
+    public int[] moveBuffer() {
+        return moves;
+    }
+
+    public int moveAt(int index) {
+        return moves[index];
+    }
+
+    public List<Integer> toList() {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(path[i]);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,227 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Search counters kept per worker thread. Each thread registers its own Counters the first time it asks
+// for them and is the only one that writes to them, so counting needs no atomic read-modify-write. The
+// owner publishes every update with an opaque store and readers use opaque loads: a progress sample taken
+// while the search runs sees each counter's latest or a recent value, never a torn one, and totals read
+// after the workers have been joined are exact.
+public class SearchStats {
+
+    public static final class Counters {
+        private static final VarHandle EXPANDED;
+        private static final VarHandle PRUNED;
+        private static final VarHandle FORKED;
+        private static final VarHandle STOLEN;
+        private static final VarHandle WASTED;
+        private static final VarHandle MAX_DEPTH;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                EXPANDED = lookup.findVarHandle(Counters.class, "expanded", long.class);
+                PRUNED = lookup.findVarHandle(Counters.class, "pruned", long.class);
+                FORKED = lookup.findVarHandle(Counters.class, "forked", long.class);
+                STOLEN = lookup.findVarHandle(Counters.class, "stolen", long.class);
+                WASTED = lookup.findVarHandle(Counters.class, "wasted", long.class);
+                MAX_DEPTH = lookup.findVarHandle(Counters.class, "maxDepth", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final String worker;
+        // Written only by the owning thread, so it may read them plainly; everyone else goes through the getters.
+        private long expanded;
+        private long pruned;
+        private long forked;
+        private long stolen;
+        private long wasted;
+        private int maxDepth;
+
+        private Counters(String worker) {
+            this.worker = worker;
+        }
+
+        // Called once per partial path the search looks at.
+        void expand(int depth) {
+            EXPANDED.setOpaque(this, expanded + 1);
+            if (depth > maxDepth) MAX_DEPTH.setOpaque(this, depth);
+        }
+
+        // A partial path rejected as a dead end.
+        void addPruned() {
+            PRUNED.setOpaque(this, pruned + 1);
+        }
+
+        void addForked(int count) {
+            FORKED.setOpaque(this, forked + count);
+        }
+
+        void addStolen() {
+            STOLEN.setOpaque(this, stolen + 1);
+        }
+
+        void addWasted(int count) {
+            WASTED.setOpaque(this, wasted + count);
+        }
+
+        public String getWorker() { return worker; }
+        public long getExpanded() { return (long) EXPANDED.getOpaque(this); }
+        public long getPruned() { return (long) PRUNED.getOpaque(this); }
+        public long getForked() { return (long) FORKED.getOpaque(this); }
+        public long getStolen() { return (long) STOLEN.getOpaque(this); }
+        public long getWasted() { return (long) WASTED.getOpaque(this); }
+        public int getMaxDepth() { return (int) MAX_DEPTH.getOpaque(this); }
+    }
+
+    private final List<Counters> workers = new CopyOnWriteArrayList<>();
+    // Work dropped by the search itself rather than by a worker, e.g. donated paths still queued at the end.
+    private final AtomicLong abandoned = new AtomicLong();
+    private final ThreadLocal<Counters> local = ThreadLocal.withInitial(() -> {
+        Counters counters = new Counters(Thread.currentThread().getName());
+        workers.add(counters);
+        return counters;
+    });
+
+    // The calling thread's counters. Look them up once per task or thread and pass them down the
+    // recursion rather than calling this per node.
+    public Counters local() {
+        return local.get();
+    }
+
+    // Counts towards getWasted() without registering the calling thread as a worker.
+    public void addAbandoned(long count) {
+        abandoned.addAndGet(count);
+    }
+
+    public long getAbandoned() {
+        return abandoned.get();
+    }
+
+    public List<Counters> getWorkers() {
+        return workers;
+    }
+
+    public long getExpanded() {
+        long sum = 0;
+        for (Counters c : workers) sum += c.getExpanded();
+        return sum;
+    }
+
+    public long getPruned() {
+        long sum = 0;
+        for (Counters c : workers) sum += c.getPruned();
+        return sum;
+    }
+
+    public long getForked() {
+        long sum = 0;
+        for (Counters c : workers) sum += c.getForked();
+        return sum;
+    }
+
+    public long getStolen() {
+        long sum = 0;
+        for (Counters c : workers) sum += c.getStolen();
+        return sum;
+    }
+
+    public long getWasted() {
+        long sum = abandoned.get();
+        for (Counters c : workers) sum += c.getWasted();
+        return sum;
+    }
+
+    public int getMaxDepth() {
+        int max = 0;
+        for (Counters c : workers) max = Math.max(max, c.getMaxDepth());
+        return max;
+    }
+
+    // Only workers that expanded at least one node; the FJ pool and the basic search both create
+    // threads that end up with nothing to do.
+    public int getActiveWorkers() {
+        int count = 0;
+        for (Counters c : workers) {
+            if (c.getExpanded() > 0) count++;
+        }
+        return count;
+    }
+
+    public String describe(long elapsedMillis) {
+        long expanded = getExpanded();
+        double seconds = elapsedMillis / 1000.0;
+        return String.format("%d nodes (%.0f nodes/s), %d pruned, %d forked, %d stolen, %d wasted, max depth %d, %d/%d workers active",
+                expanded, seconds > 0 ? expanded / seconds : 0.0, getPruned(), getForked(), getStolen(), getWasted(),
+                getMaxDepth(), getActiveWorkers(), workers.size());
+    }
+
+    public String describeWorkers() {
+        StringBuilder sb = new StringBuilder();
+        long total = Math.max(1, getExpanded());
+        for (Counters c : workers) {
+            sb.append(String.format("  %-28s %10d nodes (%5.1f%%) %8d pruned %6d forked %6d stolen %6d wasted  depth %d%n",
+                    c.worker, c.getExpanded(), 100.0 * c.getExpanded() / total, c.getPruned(), c.getForked(), c.getStolen(), c.getWasted(), c.getMaxDepth()));
+        }
+        if (abandoned.get() > 0) {
+            sb.append(String.format("  %-28s %6d wasted%n", "(never searched)", abandoned.get()));
+        }
+        return sb.toString();
+    }
+
+    // Prints a line every periodMillis while the search runs, with the node rate over the last period.
+    // Runs that finish within the first period print nothing.
+    public ProgressReporter startReporting(String label, long periodMillis) {
+        ProgressReporter reporter = new ProgressReporter(label, periodMillis);
+        reporter.thread.start();
+        return reporter;
+    }
+
+    public final class ProgressReporter implements AutoCloseable {
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private ProgressReporter(String label, long periodMillis) {
+            this.thread = new Thread(() -> report(label, periodMillis), "Search-Progress");
+            this.thread.setDaemon(true);
+        }
+
+        private void report(String label, long periodMillis) {
+            long start = System.nanoTime();
+            long lastTime = start;
+            long lastExpanded = 0;
+
+            while (running) {
+                try {
+                    Thread.sleep(periodMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (!running) return;
+
+                long now = System.nanoTime();
+                long expanded = getExpanded();
+                double rate = (expanded - lastExpanded) / ((now - lastTime) / 1e9);
+                System.out.printf("  [%s %.1f s] %d nodes (%.0f nodes/s), %d pruned, %d forked, %d stolen, max depth %d%n",
+                        label, (now - start) / 1e9, expanded, rate, getPruned(), getForked(), getStolen(), getMaxDepth());
+                lastTime = now;
+                lastExpanded = expanded;
+            }
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}